@@ -0,0 +1,116 @@
+package com.monentreprise.gestiondevisfactures.benchmark;
+
+import com.monentreprise.gestiondevisfactures.dto.EntrepriseDTO;
+import com.monentreprise.gestiondevisfactures.dto.LogoEntreprise;
+import com.monentreprise.gestiondevisfactures.dto.ProfilEntreprise;
+import com.monentreprise.gestiondevisfactures.entity.*;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Jeux de données en mémoire partagés par les benchmarks (aucun accès base)
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Client client() {
+        Client client = new Client();
+        client.setId(1L);
+        client.setNom("Société Benchmark");
+        client.setEmail("contact@benchmark.ma");
+        client.setTelephone("0522000000");
+        client.setAdresse("12 Boulevard Zerktouni, Casablanca");
+        return client;
+    }
+
+    static Produit produit(long id) {
+        Produit produit = new Produit();
+        produit.setId(id);
+        produit.setNom("Produit " + id);
+        produit.setCategorie("Catégorie " + (id % 10));
+        produit.setPrixUnitaireHT(BigDecimal.valueOf(10 + id % 90, 0).add(new BigDecimal("0.99")));
+        produit.setStock(1_000);
+        return produit;
+    }
+
+    static Devis devis(int nombreLignes) {
+        Devis devis = new Devis();
+        devis.setId(1L);
+        devis.setNumeroDevis("DEV-2025-0001");
+        devis.setDateDevis(LocalDateTime.of(2025, 1, 15, 10, 30));
+        devis.setClient(client());
+        devis.setCommentaire("Devis généré pour les benchmarks");
+        for (int i = 1; i <= nombreLignes; i++) {
+            DevisDetail ligne = new DevisDetail();
+            ligne.setId((long) i);
+            ligne.setProduit(produit(i));
+            ligne.setQuantite(1 + i % 7);
+            ligne.setPrixUnitaireHT(ligne.getProduit().getPrixUnitaireHT());
+            ligne.setTva(new BigDecimal("20.00"));
+            devis.addLigne(ligne);
+        }
+        devis.recalculerTotaux();
+        return devis;
+    }
+
+    static Facture facture(int nombreLignes) {
+        Facture facture = new Facture();
+        facture.setId(1L);
+        facture.setNumeroFacture("FAC-2025-0001");
+        facture.setDateFacture(LocalDateTime.of(2025, 1, 20, 14, 0));
+        facture.setClient(client());
+        facture.setModePaiement(Facture.ModePaiement.VIREMENT);
+        for (int i = 1; i <= nombreLignes; i++) {
+            FactureDetail ligne = new FactureDetail();
+            ligne.setId((long) i);
+            ligne.setProduit(produit(i));
+            ligne.setQuantite(1 + i % 7);
+            ligne.setPrixUnitaireHT(ligne.getProduit().getPrixUnitaireHT());
+            ligne.setTva(new BigDecimal("20.00"));
+            facture.addLigne(ligne);
+        }
+        facture.recalculerTotaux();
+        return facture;
+    }
+
+    /**
+     * Profil d'entreprise complet, avec un logo PNG de 240 x 120 pixels
+     */
+    static ProfilEntreprise profilEntreprise() {
+        EntrepriseDTO entreprise = new EntrepriseDTO();
+        entreprise.setId(1L);
+        entreprise.setNom("Entreprise Benchmark");
+        entreprise.setAdresse("45 Rue Ibn Battouta, Marrakech 40000");
+        entreprise.setIce("001234567000089");
+        entreprise.setIdentifiantFiscal("12345678");
+        entreprise.setRc("RC 98765");
+        entreprise.setPatente("45678901");
+        entreprise.setTelephone("0524987654");
+        entreprise.setEmail("contact@benchmark.ma");
+
+        BufferedImage image = new BufferedImage(240, 120, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(41, 128, 185));
+        graphics.fillRect(0, 0, 240, 120);
+        graphics.setColor(Color.WHITE);
+        graphics.fillOval(60, 20, 120, 80);
+        graphics.dispose();
+        try (ByteArrayOutputStream png = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", png);
+            LogoEntreprise logo = new LogoEntreprise(png.toByteArray(), "image/png", "benchmark");
+            return new ProfilEntreprise(entreprise, "\"benchmark\"", logo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.monentreprise.gestiondevisfactures.benchmark;
+
+import com.monentreprise.gestiondevisfactures.entity.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de l'enregistrement d'un devis et de ses lignes (une transaction par devis).
+ * IDENTITY rejoue l'ancien mapping (un INSERT par ligne, batch impossible) via
+ * identity-orm.xml ; SEQUENCE utilise les séquences pooled et le batch JDBC.
+ * La base H2 en mémoire n'a pas de latence réseau : l'écart réel sur PostgreSQL est plus grand.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertionBenchmark {
+
+    private static final int NOMBRE_PRODUITS = 50;
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    private String generation;
+
+    @Param({"10", "200"})
+    private int nombreLignes;
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private Long clientId;
+    private final List<Long> produitIds = new ArrayList<>();
+    private long numero;
+
+    @Setup
+    public void setup() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.URL,
+                        "jdbc:h2:mem:insertion-" + generation + "-" + nombreLignes + ";DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.USER, "sa")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .build();
+
+        MetadataSources sources = new MetadataSources(registry)
+                .addAnnotatedClass(Client.class)
+                .addAnnotatedClass(Produit.class)
+                .addAnnotatedClass(Devis.class)
+                .addAnnotatedClass(DevisDetail.class)
+                .addAnnotatedClass(Facture.class)
+                .addAnnotatedClass(FactureDetail.class);
+        if ("IDENTITY".equals(generation)) {
+            sources.addResource("benchmark/identity-orm.xml");
+        }
+        sessionFactory = sources.buildMetadata().buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            Client client = BenchmarkFixtures.client();
+            client.setId(null);
+            session.persist(client);
+            clientId = client.getId();
+
+            for (long i = 1; i <= NOMBRE_PRODUITS; i++) {
+                Produit produit = BenchmarkFixtures.produit(i);
+                produit.setId(null);
+                session.persist(produit);
+                produitIds.add(produit.getId());
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Benchmark
+    public Long insererDevis() {
+        return sessionFactory.fromTransaction(session -> {
+            Devis devis = new Devis();
+            devis.setNumeroDevis("DEV-BENCH-" + (++numero));
+            devis.setClient(session.getReference(Client.class, clientId));
+            for (int i = 0; i < nombreLignes; i++) {
+                DevisDetail ligne = new DevisDetail();
+                ligne.setProduit(session.getReference(Produit.class, produitIds.get(i % NOMBRE_PRODUITS)));
+                ligne.setQuantite(1 + i % 7);
+                ligne.setPrixUnitaireHT(new BigDecimal("99.90"));
+                ligne.setTva(new BigDecimal("20.00"));
+                ligne.calculerTotaux();
+                devis.addLigne(ligne);
+            }
+            session.persist(devis);
+            return devis.getId();
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.monentreprise.gestiondevisfactures.benchmark;
+
+import com.monentreprise.gestiondevisfactures.dto.DevisDTO;
+import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
+import com.monentreprise.gestiondevisfactures.entity.Devis;
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.mapper.DevisMapper;
+import com.monentreprise.gestiondevisfactures.mapper.FactureMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la conversion entité vers DTO (DevisMapper / FactureMapper)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int nombreLignes;
+
+    private final DevisMapper devisMapper = new DevisMapper();
+    private final FactureMapper factureMapper = new FactureMapper();
+
+    private Devis devis;
+    private Facture facture;
+
+    @Setup
+    public void setup() {
+        devis = BenchmarkFixtures.devis(nombreLignes);
+        facture = BenchmarkFixtures.facture(nombreLignes);
+    }
+
+    @Benchmark
+    public DevisDTO devisToDTO() {
+        return devisMapper.toDTO(devis);
+    }
+
+    @Benchmark
+    public FactureDTO factureToDTO() {
+        return factureMapper.toDTO(facture);
+    }
+}
@@ -0,0 +1,91 @@
+package com.monentreprise.gestiondevisfactures.benchmark;
+
+import com.monentreprise.gestiondevisfactures.config.PdfCacheProperties;
+import com.monentreprise.gestiondevisfactures.dto.EntrepriseDTO;
+import com.monentreprise.gestiondevisfactures.dto.ProfilEntreprise;
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.repository.DevisRepository;
+import com.monentreprise.gestiondevisfactures.repository.FactureRepository;
+import com.monentreprise.gestiondevisfactures.service.EntrepriseService;
+import com.monentreprise.gestiondevisfactures.service.impl.PdfCacheServiceImpl;
+import com.monentreprise.gestiondevisfactures.service.impl.PdfServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark du rendu PDF d'une facture (PdfServiceImpl.genererPdfFacture, logo compris) sur des entités en mémoire
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    private int nombreLignes;
+
+    private PdfServiceImpl pdfService;
+
+    @Setup
+    public void setup() {
+        Facture facture = BenchmarkFixtures.facture(nombreLignes);
+        FactureRepository factureRepository = repository(FactureRepository.class, "findByIdWithLignes", facture);
+        DevisRepository devisRepository = repository(DevisRepository.class, "findByIdWithLignes", null);
+        // Cache désactivé : on mesure le rendu lui-même
+        PdfCacheProperties cacheProperties = new PdfCacheProperties();
+        cacheProperties.setEnabled(false);
+        pdfService = new PdfServiceImpl(devisRepository, factureRepository, new PdfCacheServiceImpl(cacheProperties),
+                new EntrepriseServiceFixe(BenchmarkFixtures.profilEntreprise()), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public byte[] genererPdfFacture() {
+        return pdfService.genererPdfFacture(1L);
+    }
+
+    /**
+     * Repository en mémoire : seule la méthode indiquée est implémentée
+     */
+    @SuppressWarnings("unchecked")
+    private static <R> R repository(Class<R> type, String methode, Object resultat) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals(methode)) {
+                return Optional.ofNullable(resultat);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    /**
+     * Informations de l'entreprise en mémoire, constantes pendant la mesure
+     */
+    private static final class EntrepriseServiceFixe implements EntrepriseService {
+
+        private final ProfilEntreprise profil;
+
+        private EntrepriseServiceFixe(ProfilEntreprise profil) {
+            this.profil = profil;
+        }
+
+        @Override
+        public EntrepriseDTO getEntreprise() {
+            return profil.entreprise();
+        }
+
+        @Override
+        public ProfilEntreprise getProfil() {
+            return profil;
+        }
+
+        @Override
+        public EntrepriseDTO saveEntreprise(EntrepriseDTO entrepriseDTO) {
+            return entrepriseDTO;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.monentreprise.gestiondevisfactures.benchmark;
+
+import com.monentreprise.gestiondevisfactures.entity.Devis;
+import com.monentreprise.gestiondevisfactures.entity.DevisDetail;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark du calcul des totaux d'un devis (Devis.recalculerTotaux / DevisDetail.calculerTotaux)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TotauxBenchmark {
+
+    /**
+     * Devis de nombreLignes lignes
+     */
+    @State(Scope.Thread)
+    public static class DevisState {
+
+        @Param({"1", "10", "100", "1000"})
+        private int nombreLignes;
+
+        private Devis devis;
+
+        @Setup
+        public void setup() {
+            devis = BenchmarkFixtures.devis(nombreLignes);
+        }
+    }
+
+    /**
+     * Ligne seule : son calcul ne dépend pas du nombre de lignes du devis, d'où l'absence de paramètre
+     */
+    @State(Scope.Thread)
+    public static class LigneState {
+
+        private DevisDetail ligne;
+
+        @Setup
+        public void setup() {
+            ligne = BenchmarkFixtures.devis(1).getLignes().get(0);
+        }
+    }
+
+    @Benchmark
+    public Devis recalculerTotauxDevis(DevisState state) {
+        state.devis.recalculerTotaux();
+        return state.devis;
+    }
+
+    @Benchmark
+    public DevisDetail calculerTotauxLigne(LigneState state) {
+        state.ligne.calculerTotaux();
+        return state.ligne;
+    }
+}
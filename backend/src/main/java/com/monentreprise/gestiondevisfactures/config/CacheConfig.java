@@ -0,0 +1,43 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active le cache des données de référence (Caffeine, paramétré par spring.cache.*).
+ * Les écritures dans le cache faites sous transaction sont appliquées à sa validation.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Produits résolus par identifiant lors de la saisie des lignes de devis/factures
+     */
+    public static final String PRODUITS = "produits";
+
+    /**
+     * Clients résolus par identifiant lors de la création des devis/factures
+     */
+    public static final String CLIENTS = "clients";
+
+    /**
+     * Enveloppe le gestionnaire de cache auto-configuré : un @CacheEvict exécuté avant la validation
+     * laisserait une lecture concurrente remettre l'ancienne ligne en cache jusqu'à expiration
+     */
+    @Bean
+    static BeanPostProcessor cacheManagerTransactionnel() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof CacheManager cacheManager && !(bean instanceof TransactionAwareCacheManagerProxy)
+                        ? new TransactionAwareCacheManagerProxy(cacheManager)
+                        : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Garde de concurrence des requêtes HTTP en mode threads virtuels (préfixe app.concurrence)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.concurrence")
+public class ConcurrenceProperties {
+
+    /**
+     * Requêtes /api traitées simultanément ; 0 = 4 x la taille du pool de connexions
+     */
+    private int maxRequetes = 0;
+
+    /**
+     * Attente maximale d'une place avant de répondre 503
+     */
+    private Duration attente = Duration.ofSeconds(2);
+}
@@ -39,7 +39,7 @@ public class CorsConfig {
         corsConfiguration.setExposedHeaders(Arrays.asList(
             "Origin", "Content-Type", "Accept", "Authorization",
             "Access-Control-Allow-Origin", "Access-Control-Allow-Credentials",
-            "Content-Disposition"
+            "Content-Disposition", "Server-Timing"
         ));
         corsConfiguration.setAllowedMethods(Arrays.asList(
             "GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"
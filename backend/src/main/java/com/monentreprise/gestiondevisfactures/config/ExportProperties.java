@@ -0,0 +1,19 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paramètres des exports en flux NDJSON/CSV (préfixe app.export)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    /**
+     * Lignes lues par aller-retour du curseur JDBC (mémoire bornée quel que soit le volume)
+     */
+    private int fetchSize = 500;
+}
@@ -0,0 +1,24 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paramètres des imports CSV de produits et clients (préfixe app.import)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+    /**
+     * Lignes valides écrites par lot JDBC
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Erreurs détaillées dans le rapport (les suivantes sont seulement comptées)
+     */
+    private int maxErreurs = 1000;
+}
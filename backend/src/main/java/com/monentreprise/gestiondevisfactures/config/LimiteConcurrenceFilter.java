@@ -0,0 +1,75 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monentreprise.gestiondevisfactures.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Borne le nombre de requêtes traitées simultanément.
+ * Avec les threads virtuels Tomcat n'a plus de plafond de threads : sans cette borne,
+ * chaque requête entrante attendrait une connexion du pool jusqu'à son expiration.
+ * Au-delà de l'attente configurée la requête reçoit un 503 avec Retry-After.
+ */
+public class LimiteConcurrenceFilter extends OncePerRequestFilter {
+
+    private static final int RETRY_AFTER_SECONDES = 1;
+
+    private final Semaphore places;
+    private final long attenteMs;
+    private final ObjectMapper objectMapper;
+
+    public LimiteConcurrenceFilter(int maxRequetes, long attenteMs, ObjectMapper objectMapper) {
+        this.places = new Semaphore(maxRequetes, true);
+        this.attenteMs = attenteMs;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!obtenirPlace()) {
+            refuser(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            places.release();
+        }
+    }
+
+    private boolean obtenirPlace() {
+        try {
+            return places.tryAcquire(attenteMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void refuser(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Serveur saturé, réessayez dans quelques instants",
+                request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDES));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,52 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paramètres de pagination des listes (préfixe app.pagination)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+
+    /**
+     * Taille de page utilisée quand le client n'en précise pas
+     */
+    private int defaultSize = 50;
+
+    /**
+     * Taille de page maximale acceptée par le serveur
+     */
+    private int maxSize = 500;
+
+    /**
+     * Autorise le paramètre all=true qui renvoie la liste complète (désactivé : les écrans paginent par curseur)
+     */
+    private boolean allowUnpaged;
+
+    /**
+     * Détermine la taille de page effective, bornée par maxSize
+     */
+    public int resolveSize(Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultSize, maxSize);
+        }
+        if (requested < 1) {
+            throw new BusinessException("La taille de page doit être supérieure à 0");
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    /**
+     * Vérifie que la liste complète (all=true) est autorisée
+     */
+    public void checkUnpagedAllowed() {
+        if (!allowUnpaged) {
+            throw new BusinessException("La liste complète est désactivée, utilisez la pagination (cursor, size)");
+        }
+    }
+}
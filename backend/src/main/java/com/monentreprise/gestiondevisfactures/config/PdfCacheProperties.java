@@ -0,0 +1,41 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Paramètres du cache des PDF générés (préfixe app.pdf.cache)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.pdf.cache")
+public class PdfCacheProperties {
+
+    /**
+     * Active le cache ; sinon chaque téléchargement régénère le PDF
+     */
+    private boolean enabled = true;
+
+    /**
+     * Répertoire du stockage disque (adressé par le contenu)
+     */
+    private String directory = System.getProperty("java.io.tmpdir") + "/gestion-devis-factures/pdf-cache";
+
+    /**
+     * Nombre maximal de PDF conservés en mémoire
+     */
+    private int memoryMaxEntries = 200;
+
+    /**
+     * Taille mémoire maximale cumulée des PDF en cache (octets)
+     */
+    private long memoryMaxBytes = 32L * 1024 * 1024;
+
+    /**
+     * Intervalle minimal entre deux balayages des objets disque que plus aucune référence ne désigne
+     */
+    private Duration sweepInterval = Duration.ofMinutes(10);
+}
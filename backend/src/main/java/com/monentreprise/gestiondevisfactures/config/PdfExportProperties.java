@@ -0,0 +1,29 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paramètres de l'export des PDF en archive ZIP (préfixe app.pdf.export)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.pdf.export")
+public class PdfExportProperties {
+
+    /**
+     * Nombre de threads de rendu partagés par tous les exports
+     */
+    private int threads = 4;
+
+    /**
+     * Nombre de PDF rendus en avance par export (PDF conservés en mémoire simultanément)
+     */
+    private int window = 8;
+
+    /**
+     * Nombre maximal de factures par archive
+     */
+    private int maxDocuments = 5000;
+}
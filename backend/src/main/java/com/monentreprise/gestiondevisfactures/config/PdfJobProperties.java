@@ -0,0 +1,41 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Paramètres des travaux de génération PDF asynchrones (préfixe app.pdf.jobs)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.pdf.jobs")
+public class PdfJobProperties {
+
+    /**
+     * Nombre de threads de rendu dédiés aux travaux
+     */
+    private int threads = 2;
+
+    /**
+     * Nombre maximal de travaux en attente ; au-delà, la soumission répond 429
+     */
+    private int queueCapacity = 20;
+
+    /**
+     * Nombre maximal de travaux conservés (en cours ou terminés non expirés)
+     */
+    private int maxJobs = 200;
+
+    /**
+     * Durée de conservation d'un travail terminé et de son PDF
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Délai conseillé au client (en-tête Retry-After) quand la file est pleine
+     */
+    private long retryAfterSeconds = 5;
+}
@@ -0,0 +1,61 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Index trigrammes de recherche des clients et produits (PostgreSQL).
+ * Si l'extension pg_trgm peut être activée, crée les index GIN des recherches par
+ * sous-chaîne et par similarité ; sans pg_trgm, la recherche retombe sur LIKE. Les index
+ * B-tree des recherches par préfixe sont créés par la migration V3.
+ */
+@Slf4j
+@Component
+public class RechercheInitializer {
+
+    private static final List<String> INDEX_TRIGRAMMES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_clients_nom_trgm ON clients USING gin (lower(nom) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_clients_email_trgm ON clients USING gin (lower(email) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_produits_nom_trgm ON produits USING gin (lower(nom) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_produits_categorie_trgm ON produits USING gin (lower(categorie) gin_trgm_ops)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean trigrammes;
+
+    // Dépendance explicite : les migrations sont appliquées avant la création des index
+    public RechercheInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void creerIndex() {
+        String produit = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(produit)) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException e) {
+            log.warn("Extension pg_trgm indisponible, recherche par LIKE sans index : {}",
+                    e.getMostSpecificCause().getMessage());
+            return;
+        }
+        INDEX_TRIGRAMMES.forEach(jdbcTemplate::execute);
+        trigrammes = true;
+    }
+
+    /**
+     * Indique si la recherche par trigrammes (pg_trgm) est disponible
+     */
+    public boolean isTrigrammes() {
+        return trigrammes;
+    }
+}
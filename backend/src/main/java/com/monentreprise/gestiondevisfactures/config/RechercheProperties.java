@@ -0,0 +1,43 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paramètres de la recherche de clients et produits (préfixe app.recherche)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.recherche")
+public class RechercheProperties {
+
+    /**
+     * Nombre de résultats renvoyés quand le client n'en précise pas
+     */
+    private int limiteDefaut = 20;
+
+    /**
+     * Nombre maximal de résultats accepté par le serveur
+     */
+    private int limiteMax = 100;
+
+    /**
+     * Longueur à partir de laquelle un terme est cherché par trigrammes (en deçà : par préfixe)
+     */
+    private int longueurMinTrigrammes = 3;
+
+    /**
+     * Détermine le nombre de résultats effectif, borné par limiteMax
+     */
+    public int resolveLimite(Integer demandee) {
+        if (demandee == null) {
+            return Math.min(limiteDefaut, limiteMax);
+        }
+        if (demandee < 1) {
+            throw new BusinessException("La limite de résultats doit être supérieure à 0");
+        }
+        return Math.min(demandee, limiteMax);
+    }
+}
@@ -0,0 +1,74 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Alignement des séquences d'identifiants (PostgreSQL).
+ * Les entités principales utilisent des séquences « pooled » (allocationSize = 50) qui
+ * permettent le batch JDBC des INSERT. Au démarrage, après la mise à jour du schéma :
+ * l'ancienne colonne IDENTITY est convertie (défaut nextval, pour les scripts SQL) et
+ * la séquence est avancée au-delà du plus grand id existant.
+ */
+@Slf4j
+@Component
+public class SequenceInitializer {
+
+    /**
+     * Doit correspondre à l'allocationSize des @SequenceGenerator
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    // Table -> séquence
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("clients", "clients_seq");
+        SEQUENCES.put("produits", "produits_seq");
+        SEQUENCES.put("devis", "devis_seq");
+        SEQUENCES.put("devis_details", "devis_details_seq");
+        SEQUENCES.put("factures", "factures_seq");
+        SEQUENCES.put("facture_details", "facture_details_seq");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Dépendance explicite : le schéma (séquences comprises) est créé avant l'alignement
+    public SequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignerSequences() {
+        String produit = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(produit)) {
+            return;
+        }
+        SEQUENCES.forEach(this::aligner);
+    }
+
+    private void aligner(String table, String sequence) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        Map<String, Object> etat = jdbcTemplate.queryForMap("SELECT last_value, is_called FROM " + sequence);
+        long dernier = ((Number) etat.get("last_value")).longValue();
+        boolean appelee = (Boolean) etat.get("is_called");
+
+        // Premier id du prochain bloc alloué par l'optimiseur pooled
+        long prochainDebut = appelee ? dernier + 1 : dernier - ALLOCATION_SIZE + 1;
+        if (prochainDebut <= maxId) {
+            jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), ?, false)", Long.class, sequence, maxId + ALLOCATION_SIZE);
+            log.info("Séquence {} avancée après l'id {} de la table {}", sequence, maxId, table);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import com.monentreprise.gestiondevisfactures.util.ProfilSqlRequete;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Profilage SQL par requête HTTP : nombre d'instructions, temps JDBC
+ * et entités chargées, remplaçant spring.jpa.show-sql
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-profiler", name = "enabled", havingValue = "true")
+public class SqlProfilerConfig {
+
+    /**
+     * Enveloppe la source de données pour chronométrer toutes les instructions JDBC
+     * (Hibernate, JdbcTemplate), avant que Hibernate ou les repositories ne la reçoivent
+     */
+    @Bean
+    public static BeanPostProcessor sqlProfilerDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource source && !(bean instanceof SqlProfilerDataSource)
+                        ? new SqlProfilerDataSource(source)
+                        : bean;
+            }
+        };
+    }
+
+    /**
+     * Compte les entités hydratées (événement POST_LOAD)
+     */
+    @Bean
+    public PostLoadEventListener sqlProfilerPostLoadListener(EntityManagerFactory entityManagerFactory) {
+        PostLoadEventListener listener = event -> {
+            ProfilSqlRequete profil = ProfilSqlRequete.courant();
+            if (profil != null) {
+                profil.entiteChargee();
+            }
+        };
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, listener);
+        return listener;
+    }
+
+    /**
+     * Filtre placé en tête de chaîne pour mesurer la requête entière
+     */
+    @Bean
+    public FilterRegistrationBean<SqlProfilerFilter> sqlProfilerFilter(SqlProfilerProperties properties) {
+        FilterRegistrationBean<SqlProfilerFilter> registration =
+                new FilterRegistrationBean<>(new SqlProfilerFilter(properties));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
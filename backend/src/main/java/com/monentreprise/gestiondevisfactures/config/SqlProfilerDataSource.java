@@ -0,0 +1,81 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import com.monentreprise.gestiondevisfactures.util.ProfilSqlRequete;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Source de données chronométrant chaque exécution JDBC (requête ou lot) et l'imputant
+ * au profil de la requête HTTP courante. Placée sous Hibernate comme sous JdbcTemplate,
+ * elle compte toutes les instructions, y compris les écritures par lot et les exports.
+ */
+public class SqlProfilerDataSource extends DelegatingDataSource {
+
+    public SqlProfilerDataSource(DataSource cible) {
+        super(cible);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envelopperConnexion(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envelopperConnexion(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection envelopperConnexion(Connection connexion) {
+        return (Connection) Proxy.newProxyInstance(SqlProfilerDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, methode, arguments) -> {
+                    Object resultat = invoquer(connexion, methode, arguments);
+                    if (resultat instanceof CallableStatement appel) {
+                        return envelopperInstruction(CallableStatement.class, appel);
+                    }
+                    if (resultat instanceof PreparedStatement requete) {
+                        return envelopperInstruction(PreparedStatement.class, requete);
+                    }
+                    if (resultat instanceof Statement instruction) {
+                        return envelopperInstruction(Statement.class, instruction);
+                    }
+                    return resultat;
+                });
+    }
+
+    private static <T extends Statement> T envelopperInstruction(Class<T> type, T instruction) {
+        Object proxy = Proxy.newProxyInstance(SqlProfilerDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, (p, methode, arguments) -> {
+                    // execute, executeQuery, executeUpdate, executeBatch et leurs variantes « Large »
+                    if (!methode.getName().startsWith("execute")) {
+                        return invoquer(instruction, methode, arguments);
+                    }
+                    long debut = System.nanoTime();
+                    try {
+                        return invoquer(instruction, methode, arguments);
+                    } finally {
+                        ProfilSqlRequete profil = ProfilSqlRequete.courant();
+                        if (profil != null) {
+                            profil.instructionExecutee(System.nanoTime() - debut);
+                        }
+                    }
+                });
+        return type.cast(proxy);
+    }
+
+    private static Object invoquer(Object cible, Method methode, Object[] arguments) throws Throwable {
+        try {
+            return methode.invoke(cible, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
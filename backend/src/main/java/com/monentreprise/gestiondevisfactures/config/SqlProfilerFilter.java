@@ -0,0 +1,60 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import com.monentreprise.gestiondevisfactures.util.ProfilSqlRequete;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Ouvre un profil SQL pour chaque requête HTTP et journalise celles
+ * qui dépassent les seuils (durée ou nombre d'instructions SQL)
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlProfilerFilter extends OncePerRequestFilter {
+
+    private final SqlProfilerProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ProfilSqlRequete profil = ProfilSqlRequete.demarrer();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ProfilSqlRequete.terminer();
+            journaliser(request, response, profil);
+        }
+    }
+
+    private void journaliser(HttpServletRequest request, HttpServletResponse response, ProfilSqlRequete profil) {
+        double dureeMs = profil.getDureeTotaleMs();
+        boolean lente = dureeMs > properties.getSlowRequest().toMillis();
+        boolean bavarde = profil.getInstructions() > properties.getMaxStatements();
+        if (lente || bavarde) {
+            log.warn("{} {} -> {} : {} ms, {} requêtes SQL ({} ms JDBC), {} entités chargées",
+                    request.getMethod(), endpoint(request), response.getStatus(),
+                    Math.round(dureeMs), profil.getInstructions(),
+                    Math.round(profil.getDureeJdbcMs()), profil.getEntitesChargees());
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} {} : {} ms, {} requêtes SQL, {} entités",
+                    request.getMethod(), endpoint(request), Math.round(dureeMs),
+                    profil.getInstructions(), profil.getEntitesChargees());
+        }
+    }
+
+    /**
+     * Motif du mapping (/api/devis/{id}) plutôt que l'URI brute, pour regrouper les logs
+     */
+    private static String endpoint(HttpServletRequest request) {
+        Object motif = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return motif != null ? motif.toString() : request.getRequestURI();
+    }
+}
@@ -0,0 +1,36 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Paramètres du profilage SQL par requête HTTP (préfixe app.sql-profiler)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-profiler")
+public class SqlProfilerProperties {
+
+    /**
+     * Active le comptage des requêtes SQL et l'en-tête Server-Timing (profil dev)
+     */
+    private boolean enabled;
+
+    /**
+     * Durée totale au-delà de laquelle une requête HTTP est journalisée
+     */
+    private Duration slowRequest = Duration.ofMillis(500);
+
+    /**
+     * Nombre d'instructions SQL au-delà duquel une requête HTTP est journalisée
+     */
+    private int maxStatements = 20;
+
+    /**
+     * Ajoute l'en-tête Server-Timing aux réponses (profil dev : il expose nombres et durées des requêtes SQL)
+     */
+    private boolean serverTiming;
+}
@@ -0,0 +1,41 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import com.monentreprise.gestiondevisfactures.util.ProfilSqlRequete;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Ajoute l'en-tête Server-Timing juste avant l'écriture du corps :
+ * une fois le corps écrit la réponse est engagée et le filtre
+ * ne peut plus modifier les en-têtes.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sql-profiler", name = "enabled", havingValue = "true")
+public class SqlProfilerResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final SqlProfilerProperties properties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isServerTiming();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        ProfilSqlRequete profil = ProfilSqlRequete.courant();
+        if (profil != null) {
+            response.getHeaders().add("Server-Timing", profil.serverTiming());
+        }
+        return body;
+    }
+}
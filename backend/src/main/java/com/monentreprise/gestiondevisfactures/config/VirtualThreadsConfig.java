@@ -0,0 +1,47 @@
+package com.monentreprise.gestiondevisfactures.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Mode threads virtuels (spring.threads.virtual.enabled=true, JRE 21+, non activé par défaut).
+ * Tomcat et l'exécuteur des réponses asynchrones passent sur des threads virtuels
+ * (auto-configuration Spring Boot) ; le nombre de requêtes simultanées est alors
+ * borné d'après la taille du pool de connexions PostgreSQL. Les pools PDF gardent
+ * leurs threads plateforme.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    private static final int REQUETES_PAR_CONNEXION = 4;
+
+    @Bean
+    public FilterRegistrationBean<LimiteConcurrenceFilter> limiteConcurrenceFilter(
+            ConcurrenceProperties properties, DataSource dataSource, ObjectMapper objectMapper) {
+        int maxRequetes = properties.getMaxRequetes();
+        if (maxRequetes <= 0) {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            int pool = hikari != null ? hikari.getMaximumPoolSize() : 10;
+            maxRequetes = pool * REQUETES_PAR_CONNEXION;
+        }
+        log.info("Threads virtuels actifs : {} requêtes /api simultanées au plus", maxRequetes);
+
+        FilterRegistrationBean<LimiteConcurrenceFilter> registration = new FilterRegistrationBean<>(
+                new LimiteConcurrenceFilter(maxRequetes, properties.getAttente().toMillis(), objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
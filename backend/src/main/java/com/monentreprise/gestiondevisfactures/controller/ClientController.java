@@ -1,7 +1,11 @@
 package com.monentreprise.gestiondevisfactures.controller;
 
+import com.monentreprise.gestiondevisfactures.config.PaginationProperties;
 import com.monentreprise.gestiondevisfactures.dto.ClientDTO;
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
+import com.monentreprise.gestiondevisfactures.dto.ImportRapportDTO;
 import com.monentreprise.gestiondevisfactures.service.ClientService;
+import com.monentreprise.gestiondevisfactures.service.ImportCsvService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -10,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -22,10 +28,21 @@ import java.util.List;
 public class ClientController {
 
     private final ClientService clientService;
+    private final ImportCsvService importCsvService;
+    private final PaginationProperties paginationProperties;
 
     @GetMapping
-    @Operation(summary = "Liste tous les clients")
+    @Operation(summary = "Liste les clients page par page (pagination par curseur)")
+    public ResponseEntity<CursorPageDTO<ClientDTO>> findPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(clientService.findPage(cursor, paginationProperties.resolveSize(size)));
+    }
+
+    @GetMapping(params = "all=true")
+    @Operation(summary = "Liste tous les clients sans pagination (all=true)")
     public ResponseEntity<List<ClientDTO>> findAll() {
+        paginationProperties.checkUnpagedAllowed();
         return ResponseEntity.ok(clientService.findAll());
     }
 
@@ -48,6 +65,12 @@ public class ClientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Importe des clients depuis un CSV (email existant = mise à jour) et renvoie le rapport ligne par ligne")
+    public ResponseEntity<ImportRapportDTO> importer(InputStream csv) throws IOException {
+        return ResponseEntity.ok(importCsvService.importerClients(csv));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Met à jour un client existant")
     public ResponseEntity<ClientDTO> update(@PathVariable Long id, @Valid @RequestBody ClientDTO clientDTO) {
@@ -62,13 +85,13 @@ public class ClientController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Recherche des clients par nom ou email")
+    @Operation(summary = "Recherche des clients par nom ou email, triés par pertinence")
     public ResponseEntity<List<ClientDTO>> search(@RequestParam(required = false) String nom,
-                                                  @RequestParam(required = false) String q) {
-        if (q != null && !q.isEmpty()) {
-            return ResponseEntity.ok(clientService.search(q));
-        } else if (nom != null && !nom.isEmpty()) {
-            return ResponseEntity.ok(clientService.searchByNom(nom));
+                                                  @RequestParam(required = false) String q,
+                                                  @RequestParam(required = false) Integer limite) {
+        String terme = q != null && !q.isEmpty() ? q : nom;
+        if (terme != null && !terme.isEmpty()) {
+            return ResponseEntity.ok(clientService.search(terme, limite));
         }
         return ResponseEntity.ok(clientService.findAll());
     }
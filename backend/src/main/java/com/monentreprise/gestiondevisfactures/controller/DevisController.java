@@ -1,18 +1,24 @@
 package com.monentreprise.gestiondevisfactures.controller;
 
+import com.monentreprise.gestiondevisfactures.config.PaginationProperties;
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.dto.DevisDTO;
+import com.monentreprise.gestiondevisfactures.dto.DevisSummary;
 import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
 import com.monentreprise.gestiondevisfactures.service.DevisService;
 import com.monentreprise.gestiondevisfactures.service.PdfService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,13 +33,38 @@ public class DevisController {
 
     private final DevisService devisService;
     private final PdfService pdfService;
+    private final PaginationProperties paginationProperties;
 
     @GetMapping
-    @Operation(summary = "Liste tous les devis")
+    @Operation(summary = "Liste les devis page par page (pagination par curseur)")
+    public ResponseEntity<CursorPageDTO<DevisDTO>> findPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(devisService.findPage(cursor, paginationProperties.resolveSize(size)));
+    }
+
+    @GetMapping(params = "all=true")
+    @Operation(summary = "Liste tous les devis sans pagination (all=true)")
     public ResponseEntity<List<DevisDTO>> findAll() {
+        paginationProperties.checkUnpagedAllowed();
         return ResponseEntity.ok(devisService.findAll());
     }
 
+    @GetMapping("/resumes")
+    @Operation(summary = "Liste paginée des résumés de devis (numéro, date, client, statut, total)")
+    public ResponseEntity<CursorPageDTO<DevisSummary>> findSummaryPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(devisService.findSummaryPage(cursor, paginationProperties.resolveSize(size)));
+    }
+
+    @GetMapping(value = "/resumes", params = "all=true")
+    @Operation(summary = "Liste les résumés de tous les devis sans pagination (all=true)")
+    public ResponseEntity<List<DevisSummary>> findAllSummaries() {
+        paginationProperties.checkUnpagedAllowed();
+        return ResponseEntity.ok(devisService.findAllSummaries());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Récupère un devis par son ID")
     public ResponseEntity<DevisDTO> findById(@PathVariable Long id) {
@@ -93,15 +124,22 @@ public class DevisController {
 
     @GetMapping("/{id}/pdf")
     @Operation(summary = "Télécharge le devis en PDF")
-    public ResponseEntity<byte[]> downloadPdf(@PathVariable Long id) {
-        byte[] pdfBytes = pdfService.genererPdfDevis(id);
-        DevisDTO devis = devisService.findById(id);
-        
+    public ResponseEntity<byte[]> downloadPdf(@PathVariable Long id, WebRequest request) {
+        PdfFichier pdf = pdfService.getPdfDevis(id);
+
+        // Pose l'ETag ; si le client possède déjà cette version, 304 sans relire le PDF
+        if (request.checkNotModified(pdf.getEtag())) {
+            return null;
+        }
+
+        byte[] pdfBytes = pdf.getContenu();
+
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", devis.getNumeroDevis() + ".pdf");
+        headers.setContentDispositionFormData("attachment", pdf.getNomFichier());
         headers.setContentLength(pdfBytes.length);
-        
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+
         return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
     }
 }
@@ -1,12 +1,20 @@
 package com.monentreprise.gestiondevisfactures.controller;
 
 import com.monentreprise.gestiondevisfactures.dto.EntrepriseDTO;
+import com.monentreprise.gestiondevisfactures.dto.LogoEntreprise;
+import com.monentreprise.gestiondevisfactures.dto.ProfilEntreprise;
+import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
 import com.monentreprise.gestiondevisfactures.service.EntrepriseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * Contrôleur REST pour la gestion des informations de l'entreprise
@@ -21,8 +29,33 @@ public class EntrepriseController {
 
     @GetMapping
     @Operation(summary = "Récupère les informations de l'entreprise")
-    public ResponseEntity<EntrepriseDTO> getEntreprise() {
-        return ResponseEntity.ok(entrepriseService.getEntreprise());
+    public ResponseEntity<EntrepriseDTO> getEntreprise(WebRequest request) {
+        ProfilEntreprise profil = entrepriseService.getProfil();
+
+        // Le navigateur revalide à chaque chargement de page : 304 tant que rien n'a changé
+        if (request.checkNotModified(profil.etag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(profil.entreprise());
+    }
+
+    @GetMapping("/logo/{empreinte}")
+    @Operation(summary = "Télécharge le logo de l'entreprise (URL versionnée par l'empreinte du contenu)")
+    public ResponseEntity<byte[]> getLogo(@PathVariable String empreinte) {
+        LogoEntreprise logo = entrepriseService.getProfil().logo();
+        if (logo == null || !logo.empreinte().equals(empreinte)) {
+            throw new ResourceNotFoundException("Logo", "empreinte", empreinte);
+        }
+
+        // Le contenu d'une URL donnée ne change jamais : cache navigateur sans revalidation
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(logo.type()))
+                .contentLength(logo.contenu().length)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .body(logo.contenu());
     }
 
     @PostMapping
@@ -1,19 +1,33 @@
 package com.monentreprise.gestiondevisfactures.controller;
 
+import com.monentreprise.gestiondevisfactures.config.PaginationProperties;
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
+import com.monentreprise.gestiondevisfactures.dto.FactureSummary;
+import com.monentreprise.gestiondevisfactures.dto.FiltreExportFactures;
+import com.monentreprise.gestiondevisfactures.dto.FormatExport;
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
 import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.repository.projection.DocumentVersionProjection;
+import com.monentreprise.gestiondevisfactures.service.ExportFactureService;
 import com.monentreprise.gestiondevisfactures.service.FactureService;
+import com.monentreprise.gestiondevisfactures.service.PdfExportService;
 import com.monentreprise.gestiondevisfactures.service.PdfService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -27,13 +41,40 @@ public class FactureController {
 
     private final FactureService factureService;
     private final PdfService pdfService;
+    private final PdfExportService pdfExportService;
+    private final ExportFactureService exportFactureService;
+    private final PaginationProperties paginationProperties;
 
     @GetMapping
-    @Operation(summary = "Liste toutes les factures")
+    @Operation(summary = "Liste les factures page par page (pagination par curseur)")
+    public ResponseEntity<CursorPageDTO<FactureDTO>> findPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(factureService.findPage(cursor, paginationProperties.resolveSize(size)));
+    }
+
+    @GetMapping(params = "all=true")
+    @Operation(summary = "Liste toutes les factures sans pagination (all=true)")
     public ResponseEntity<List<FactureDTO>> findAll() {
+        paginationProperties.checkUnpagedAllowed();
         return ResponseEntity.ok(factureService.findAll());
     }
 
+    @GetMapping("/resumes")
+    @Operation(summary = "Liste paginée des résumés de factures (numéro, date, client, statut, total)")
+    public ResponseEntity<CursorPageDTO<FactureSummary>> findSummaryPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(factureService.findSummaryPage(cursor, paginationProperties.resolveSize(size)));
+    }
+
+    @GetMapping(value = "/resumes", params = "all=true")
+    @Operation(summary = "Liste les résumés de toutes les factures sans pagination (all=true)")
+    public ResponseEntity<List<FactureSummary>> findAllSummaries() {
+        paginationProperties.checkUnpagedAllowed();
+        return ResponseEntity.ok(factureService.findAllSummaries());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Récupère une facture par son ID")
     public ResponseEntity<FactureDTO> findById(@PathVariable Long id) {
@@ -94,15 +135,72 @@ public class FactureController {
 
     @GetMapping("/{id}/pdf")
     @Operation(summary = "Télécharge la facture en PDF")
-    public ResponseEntity<byte[]> downloadPdf(@PathVariable Long id) {
-        byte[] pdfBytes = pdfService.genererPdfFacture(id);
-        FactureDTO facture = factureService.findById(id);
-        
+    public ResponseEntity<byte[]> downloadPdf(@PathVariable Long id, WebRequest request) {
+        PdfFichier pdf = pdfService.getPdfFacture(id);
+
+        // Pose l'ETag ; si le client possède déjà cette version, 304 sans relire le PDF
+        if (request.checkNotModified(pdf.getEtag())) {
+            return null;
+        }
+
+        byte[] pdfBytes = pdf.getContenu();
+
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", facture.getNumeroFacture() + ".pdf");
+        headers.setContentDispositionFormData("attachment", pdf.getNomFichier());
         headers.setContentLength(pdfBytes.length);
-        
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+
         return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
     }
+
+    @GetMapping("/export/pdf")
+    @Operation(summary = "Exporte les PDF des factures d'une période et/ou d'un statut dans une archive ZIP")
+    public ResponseEntity<StreamingResponseBody> exportPdf(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+            @RequestParam(required = false) Facture.StatutFacture statut) {
+        // Sélection validée avant d'écrire la réponse : les erreurs restent des 400
+        List<DocumentVersionProjection> factures = pdfExportService.facturesAExporter(debut, fin, statut);
+        StreamingResponseBody body = out -> pdfExportService.ecrireZipFactures(factures, out);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "factures.zip");
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exporte les factures en flux NDJSON ou CSV (période et statut facultatifs)")
+    public ResponseEntity<StreamingResponseBody> exportFactures(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+            @RequestParam(required = false) Facture.StatutFacture statut) {
+        FormatExport formatExport = FormatExport.depuis(format);
+        FiltreExportFactures filtre = exportFactureService.filtre(debut, fin, statut);
+        StreamingResponseBody body = out -> exportFactureService.ecrireFactures(filtre, formatExport, out);
+        return flux(body, formatExport, "factures");
+    }
+
+    @GetMapping("/export/lignes")
+    @Operation(summary = "Exporte les lignes des factures en flux NDJSON ou CSV (période et statut facultatifs)")
+    public ResponseEntity<StreamingResponseBody> exportLignes(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+            @RequestParam(required = false) Facture.StatutFacture statut) {
+        FormatExport formatExport = FormatExport.depuis(format);
+        FiltreExportFactures filtre = exportFactureService.filtre(debut, fin, statut);
+        StreamingResponseBody body = out -> exportFactureService.ecrireLignes(filtre, formatExport, out);
+        return flux(body, formatExport, "lignes-factures");
+    }
+
+    private static ResponseEntity<StreamingResponseBody> flux(StreamingResponseBody body, FormatExport format, String nom) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getTypeMime() + ";charset=UTF-8"));
+        headers.setContentDispositionFormData("attachment", nom + "." + format.getExtension());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,59 @@
+package com.monentreprise.gestiondevisfactures.controller;
+
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
+import com.monentreprise.gestiondevisfactures.dto.PdfJobDTO;
+import com.monentreprise.gestiondevisfactures.dto.PdfJobRequest;
+import com.monentreprise.gestiondevisfactures.service.PdfJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Contrôleur REST pour la génération PDF asynchrone (soumission, suivi, téléchargement)
+ */
+@RestController
+@RequestMapping("/api/pdf-jobs")
+@RequiredArgsConstructor
+@Tag(name = "PDF asynchrones", description = "API de génération PDF en arrière-plan")
+public class PdfJobController {
+
+    private final PdfJobService pdfJobService;
+
+    @PostMapping
+    @Operation(summary = "Soumet la génération du PDF d'un devis ou d'une facture (429 si la file est pleine)")
+    public ResponseEntity<PdfJobDTO> soumettre(@Valid @RequestBody PdfJobRequest request) {
+        PdfJobDTO job = pdfJobService.soumettre(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/pdf-jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Récupère l'état d'un travail de génération PDF")
+    public ResponseEntity<PdfJobDTO> getStatut(@PathVariable String jobId) {
+        return ResponseEntity.ok(pdfJobService.getStatut(jobId));
+    }
+
+    @GetMapping("/{jobId}/pdf")
+    @Operation(summary = "Télécharge le PDF d'un travail terminé")
+    public ResponseEntity<byte[]> download(@PathVariable String jobId) {
+        PdfFichier pdf = pdfJobService.getResultat(jobId);
+        byte[] pdfBytes = pdf.getContenu();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", pdf.getNomFichier());
+        headers.setContentLength(pdfBytes.length);
+        headers.setETag(pdf.getEtag());
+
+        return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+    }
+}
@@ -1,7 +1,13 @@
 package com.monentreprise.gestiondevisfactures.controller;
 
+import com.monentreprise.gestiondevisfactures.config.PaginationProperties;
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
+import com.monentreprise.gestiondevisfactures.dto.ImportRapportDTO;
 import com.monentreprise.gestiondevisfactures.dto.ProduitDTO;
+import com.monentreprise.gestiondevisfactures.dto.SuggestionProduitDTO;
+import com.monentreprise.gestiondevisfactures.service.AutocompletionService;
 import com.monentreprise.gestiondevisfactures.service.ProduitService;
+import com.monentreprise.gestiondevisfactures.service.ImportCsvService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -10,6 +16,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -22,10 +30,22 @@ import java.util.List;
 public class ProduitController {
 
     private final ProduitService produitService;
+    private final ImportCsvService importCsvService;
+    private final AutocompletionService autocompletionService;
+    private final PaginationProperties paginationProperties;
 
     @GetMapping
-    @Operation(summary = "Liste tous les produits")
+    @Operation(summary = "Liste les produits page par page (pagination par curseur)")
+    public ResponseEntity<CursorPageDTO<ProduitDTO>> findPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(produitService.findPage(cursor, paginationProperties.resolveSize(size)));
+    }
+
+    @GetMapping(params = "all=true")
+    @Operation(summary = "Liste tous les produits sans pagination (all=true)")
     public ResponseEntity<List<ProduitDTO>> findAll() {
+        paginationProperties.checkUnpagedAllowed();
         return ResponseEntity.ok(produitService.findAll());
     }
 
@@ -48,6 +68,12 @@ public class ProduitController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Importe des produits depuis un CSV (id renseigné = mise à jour) et renvoie le rapport ligne par ligne")
+    public ResponseEntity<ImportRapportDTO> importer(InputStream csv) throws IOException {
+        return ResponseEntity.ok(importCsvService.importerProduits(csv));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Met à jour un produit existant")
     public ResponseEntity<ProduitDTO> update(@PathVariable Long id, @Valid @RequestBody ProduitDTO produitDTO) {
@@ -62,16 +88,27 @@ public class ProduitController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Recherche des produits par nom et/ou catégorie")
+    @Operation(summary = "Recherche des produits par nom et/ou catégorie, triés par pertinence")
     public ResponseEntity<List<ProduitDTO>> search(
             @RequestParam(required = false) String nom,
-            @RequestParam(required = false) String categorie) {
-        return ResponseEntity.ok(produitService.search(nom, categorie));
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String categorie,
+            @RequestParam(required = false) Integer limite) {
+        String terme = q != null && !q.isEmpty() ? q : nom;
+        return ResponseEntity.ok(produitService.search(terme, categorie, limite));
+    }
+
+    @GetMapping("/suggestions")
+    @Operation(summary = "Autocomplétion des produits actifs par préfixe du nom (sans accès à la base)")
+    public ResponseEntity<List<SuggestionProduitDTO>> suggestions(
+            @RequestParam String prefixe,
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(autocompletionService.suggererProduits(prefixe, limite));
     }
 
     @GetMapping("/categories")
-    @Operation(summary = "Liste toutes les catégories de produits")
-    public ResponseEntity<List<String>> findAllCategories() {
-        return ResponseEntity.ok(produitService.findAllCategories());
+    @Operation(summary = "Liste les catégories de produits, éventuellement filtrées par préfixe")
+    public ResponseEntity<List<String>> findAllCategories(@RequestParam(required = false) String prefixe) {
+        return ResponseEntity.ok(autocompletionService.suggererCategories(prefixe));
     }
 }
@@ -1,6 +1,9 @@
 package com.monentreprise.gestiondevisfactures.controller;
 
+import com.monentreprise.gestiondevisfactures.dto.CacheStatsDTO;
 import com.monentreprise.gestiondevisfactures.dto.StatistiquesDTO;
+import com.monentreprise.gestiondevisfactures.service.CaAgregatService;
+import com.monentreprise.gestiondevisfactures.service.ReferentielService;
 import com.monentreprise.gestiondevisfactures.service.StatistiquesService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -9,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Year;
+import java.util.List;
 
 /**
  * Contrôleur REST pour les statistiques
@@ -20,6 +24,8 @@ import java.time.Year;
 public class StatistiquesController {
 
     private final StatistiquesService statistiquesService;
+    private final CaAgregatService caAgregatService;
+    private final ReferentielService referentielService;
 
     @GetMapping
     @Operation(summary = "Récupère les statistiques globales")
@@ -33,6 +39,13 @@ public class StatistiquesController {
         return ResponseEntity.ok(statistiquesService.getChiffreAffaires());
     }
 
+    @PostMapping("/ca/reconstruire")
+    @Operation(summary = "Recalcule les cumuls de CA depuis les factures (initialisation ou correction d'écart)")
+    public ResponseEntity<StatistiquesDTO> reconstruireChiffreAffaires() {
+        caAgregatService.reconstruire();
+        return ResponseEntity.ok(statistiquesService.getChiffreAffaires());
+    }
+
     @GetMapping("/ca-par-mois")
     @Operation(summary = "Récupère le CA par mois pour une année")
     public ResponseEntity<StatistiquesDTO> getCAParMois(
@@ -46,4 +59,10 @@ public class StatistiquesController {
     public ResponseEntity<StatistiquesDTO> getStatistiquesClient(@PathVariable Long clientId) {
         return ResponseEntity.ok(statistiquesService.getStatistiquesClient(clientId));
     }
+
+    @GetMapping("/caches")
+    @Operation(summary = "Récupère les compteurs des caches produits/clients (succès, défauts, évictions)")
+    public ResponseEntity<List<CacheStatsDTO>> getStatistiquesCaches() {
+        return ResponseEntity.ok(referentielService.getStatistiques());
+    }
 }
@@ -0,0 +1,21 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO des compteurs d'un cache de référence (succès, défauts, évictions)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+
+    private String nom;
+    private long taille;
+    private long succes;
+    private long defauts;
+    private double tauxSucces;
+    private long evictions;
+}
@@ -0,0 +1,45 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * DTO d'une page de résultats paginée par curseur (keyset)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content = new ArrayList<>();
+
+    // Taille de page effectivement appliquée
+    private int size;
+
+    // Curseur à renvoyer pour obtenir la page suivante (null si dernière page)
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    /**
+     * Construit une page à partir des lignes lues (size + 1 au plus) :
+     * la ligne excédentaire indique l'existence d'une page suivante
+     */
+    public static <E, T> CursorPageDTO<T> fromRows(List<E> rows, int size,
+                                                   Function<E, T> mapper,
+                                                   Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        List<T> content = page.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(content, size, nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,19 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import com.monentreprise.gestiondevisfactures.entity.Devis;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Résumé d'un devis pour les écrans de liste (projection JPA, sans les lignes)
+ */
+public record DevisSummary(
+        Long id,
+        String numeroDevis,
+        LocalDateTime dateDevis,
+        Long clientId,
+        String clientNom,
+        Devis.StatutDevis statut,
+        BigDecimal totalTTC) {
+}
@@ -1,5 +1,6 @@
 package com.monentreprise.gestiondevisfactures.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,4 +22,16 @@ public class EntrepriseDTO {
     private String patente;
     private String telephone;
     private String email;
+
+    /**
+     * Nouveau logo en data URL (PNG, JPEG ou GIF) ; chaîne vide pour le retirer, absent pour le conserver
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String logo;
+
+    /**
+     * Chemin du logo courant, versionné par son empreinte (null sans logo)
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String logoUrl;
 }
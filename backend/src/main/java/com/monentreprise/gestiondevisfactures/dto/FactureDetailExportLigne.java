@@ -0,0 +1,31 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Ligne d'export d'un détail de facture (une ligne NDJSON ou CSV)
+ */
+public record FactureDetailExportLigne(
+        Long id,
+        Long factureId,
+        String numeroFacture,
+        Long produitId,
+        String produitNom,
+        Integer quantite,
+        BigDecimal prixUnitaireHT,
+        BigDecimal tva,
+        BigDecimal totalLigneHT,
+        BigDecimal totalLigneTTC) {
+
+    public static final List<String> COLONNES = List.of("id", "factureId", "numeroFacture", "produitId",
+            "produitNom", "quantite", "prixUnitaireHT", "tva", "totalLigneHT", "totalLigneTTC");
+
+    /**
+     * Valeurs dans l'ordre de COLONNES
+     */
+    public Object[] valeurs() {
+        return new Object[]{id, factureId, numeroFacture, produitId, produitNom,
+                quantite, prixUnitaireHT, tva, totalLigneHT, totalLigneTTC};
+    }
+}
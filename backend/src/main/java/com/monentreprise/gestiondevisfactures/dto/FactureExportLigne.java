@@ -0,0 +1,32 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ligne d'export d'une facture (une ligne NDJSON ou CSV)
+ */
+public record FactureExportLigne(
+        Long id,
+        String numeroFacture,
+        LocalDateTime dateFacture,
+        String statut,
+        String modePaiement,
+        Long clientId,
+        String clientNom,
+        BigDecimal montantHT,
+        BigDecimal montantTVA,
+        BigDecimal montantTTC) {
+
+    public static final List<String> COLONNES = List.of("id", "numeroFacture", "dateFacture", "statut",
+            "modePaiement", "clientId", "clientNom", "montantHT", "montantTVA", "montantTTC");
+
+    /**
+     * Valeurs dans l'ordre de COLONNES
+     */
+    public Object[] valeurs() {
+        return new Object[]{id, numeroFacture, dateFacture, statut, modePaiement,
+                clientId, clientNom, montantHT, montantTVA, montantTTC};
+    }
+}
@@ -0,0 +1,20 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Résumé d'une facture pour les écrans de liste (projection JPA, sans les lignes)
+ */
+public record FactureSummary(
+        Long id,
+        String numeroFacture,
+        LocalDateTime dateFacture,
+        Long clientId,
+        String clientNom,
+        Facture.StatutFacture statut,
+        Facture.ModePaiement modePaiement,
+        BigDecimal montantTTC) {
+}
@@ -0,0 +1,11 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+
+import java.time.LocalDate;
+
+/**
+ * Critères facultatifs d'un export de factures (période incluse, statut)
+ */
+public record FiltreExportFactures(LocalDate debut, LocalDate fin, Facture.StatutFacture statut) {
+}
@@ -0,0 +1,39 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+
+/**
+ * Formats des exports en flux
+ */
+public enum FormatExport {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String typeMime;
+    private final String extension;
+
+    FormatExport(String typeMime, String extension) {
+        this.typeMime = typeMime;
+        this.extension = extension;
+    }
+
+    public String getTypeMime() {
+        return typeMime;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Format désigné par son extension (ndjson, csv), sans tenir compte de la casse
+     */
+    public static FormatExport depuis(String valeur) {
+        for (FormatExport format : values()) {
+            if (format.extension.equalsIgnoreCase(valeur)) {
+                return format;
+            }
+        }
+        throw new BusinessException("Format d'export inconnu : " + valeur + " (ndjson ou csv)");
+    }
+}
@@ -0,0 +1,26 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne rejetée par un import CSV
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErreurDTO {
+
+    /**
+     * Numéro de ligne dans le fichier (1 = en-tête)
+     */
+    private long ligne;
+
+    /**
+     * Colonne en cause, null si l'erreur porte sur la ligne entière
+     */
+    private String colonne;
+
+    private String message;
+}
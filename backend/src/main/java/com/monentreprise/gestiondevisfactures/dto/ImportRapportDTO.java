@@ -0,0 +1,32 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rapport d'un import CSV : lignes importées, lignes rejetées et leurs erreurs
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRapportDTO {
+
+    private long lignesLues;
+    private long importees;
+    private long rejetees;
+    private long dureeMs;
+
+    /**
+     * Erreurs détaillées, bornées par app.import.max-erreurs
+     */
+    private List<ImportErreurDTO> erreurs = new ArrayList<>();
+
+    /**
+     * Vrai si des erreurs n'ont pas été détaillées
+     */
+    private boolean erreursTronquees;
+}
@@ -0,0 +1,7 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+/**
+ * Logo de l'entreprise : octets de l'image, type MIME et empreinte SHA-256 (hexadécimale)
+ */
+public record LogoEntreprise(byte[] contenu, String type, String empreinte) {
+}
@@ -0,0 +1,35 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import java.util.function.Supplier;
+
+/**
+ * PDF prêt à être servi : nom de fichier, ETag et contenu chargé à la demande
+ * (le contenu n'est pas lu si le client possède déjà cette version)
+ */
+public class PdfFichier {
+
+    private final String nomFichier;
+    private final String etag;
+    private final Supplier<byte[]> contenu;
+
+    public PdfFichier(String nomFichier, String etag, Supplier<byte[]> contenu) {
+        this.nomFichier = nomFichier;
+        this.etag = etag;
+        this.contenu = contenu;
+    }
+
+    public String getNomFichier() {
+        return nomFichier;
+    }
+
+    /**
+     * ETag fort, entre guillemets, dérivé de l'empreinte SHA-256 du contenu
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public byte[] getContenu() {
+        return contenu.get();
+    }
+}
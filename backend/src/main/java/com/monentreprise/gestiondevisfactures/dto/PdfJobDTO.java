@@ -0,0 +1,35 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * État d'un travail de génération PDF asynchrone
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdfJobDTO {
+
+    private String id;
+    private CompteurNumerotation.TypeDocument type;
+    private Long documentId;
+    private StatutJob statut;
+    private String erreur;
+    private LocalDateTime dateCreation;
+    private LocalDateTime dateFin;
+
+    /**
+     * Enum des statuts d'un travail
+     */
+    public enum StatutJob {
+        EN_ATTENTE,
+        EN_COURS,
+        TERMINE,
+        ECHEC
+    }
+}
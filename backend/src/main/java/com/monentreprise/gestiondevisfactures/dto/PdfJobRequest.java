@@ -0,0 +1,22 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Demande de génération asynchrone du PDF d'un devis ou d'une facture
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdfJobRequest {
+
+    @NotNull(message = "Le type de document est obligatoire")
+    private CompteurNumerotation.TypeDocument type;
+
+    @NotNull(message = "L'ID du document est obligatoire")
+    private Long documentId;
+}
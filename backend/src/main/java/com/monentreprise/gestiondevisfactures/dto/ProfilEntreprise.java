@@ -0,0 +1,8 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+/**
+ * Informations de l'entreprise, leur version (ETag fort, entre guillemets, dérivé du contenu)
+ * et le logo (null sans logo)
+ */
+public record ProfilEntreprise(EntrepriseDTO entreprise, String etag, LogoEntreprise logo) {
+}
@@ -33,6 +33,7 @@ public class StatistiquesDTO {
     private Integer nombreFactures = 0;
     private Integer nombreFacturesPayees = 0;
     private Integer nombreFacturesNonPayees = 0;
+    private Integer nombreFacturesPartiellementPayees = 0;
     
     // CA par mois (clé = numéro du mois 1-12)
     private Map<Integer, BigDecimal> caParMois = new HashMap<>();
@@ -0,0 +1,21 @@
+package com.monentreprise.gestiondevisfactures.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Produit actif proposé par l'autocomplétion (sans stock : servi depuis la mémoire)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionProduitDTO {
+
+    private Long id;
+    private String nom;
+    private String categorie;
+    private BigDecimal prixUnitaireHT;
+}
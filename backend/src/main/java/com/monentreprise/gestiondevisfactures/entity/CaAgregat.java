@@ -0,0 +1,74 @@
+package com.monentreprise.gestiondevisfactures.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entité représentant un cumul précalculé du chiffre d'affaires (factures payées)
+ * pour une période (mois, année ou total) et un client (0 = tous les clients).
+ * Les lignes sont maintenues dans la transaction qui change l'état payé d'une facture.
+ */
+@Entity
+@Table(name = "ca_aggregates",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"granularite", "periode", "client_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaAgregat {
+
+    /**
+     * Valeur de client_id des cumuls tous clients confondus
+     */
+    public static final long TOUS_CLIENTS = 0L;
+
+    /**
+     * Période des cumuls TOTAL
+     */
+    public static final LocalDate PERIODE_TOTAL = LocalDate.of(1970, 1, 1);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private Granularite granularite;
+
+    // Premier jour de la période (1er du mois, 1er janvier)
+    @Column(nullable = false)
+    private LocalDate periode;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal montant = BigDecimal.ZERO;
+
+    @Column(name = "nombre_factures", nullable = false)
+    private Long nombreFactures = 0L;
+
+    /**
+     * Enumération des granularités de cumul
+     */
+    public enum Granularite {
+        MOIS,
+        ANNEE,
+        TOTAL;
+
+        /**
+         * Début de la période de cette granularité contenant le jour donné
+         */
+        public LocalDate debut(LocalDate jour) {
+            return switch (this) {
+                case MOIS -> jour.withDayOfMonth(1);
+                case ANNEE -> jour.withDayOfYear(1);
+                case TOTAL -> PERIODE_TOTAL;
+            };
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.monentreprise.gestiondevisfactures.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entité représentant le compteur annuel de numérotation d'un type de document.
+ * La ligne est verrouillée (SELECT ... FOR UPDATE) pendant l'attribution d'un numéro.
+ */
+@Entity
+@Table(name = "compteurs_numerotation",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"type_document", "annee"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompteurNumerotation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "type_document", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private TypeDocument typeDocument;
+
+    @Column(nullable = false)
+    private Integer annee;
+
+    // Dernier numéro attribué pour ce type et cette année
+    @Column(nullable = false)
+    private Long valeur = 0L;
+
+    /**
+     * Enumération des types de documents numérotés
+     */
+    public enum TypeDocument {
+        DEVIS("DEV"),
+        FACTURE("FAC");
+
+        private final String prefixe;
+
+        TypeDocument(String prefixe) {
+            this.prefixe = prefixe;
+        }
+
+        public String getPrefixe() {
+            return prefixe;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,14 +16,19 @@ import java.util.List;
  * Entité représentant un devis
  */
 @Entity
-@Table(name = "devis")
+@Table(name = "devis", indexes = {
+        @Index(name = "idx_devis_statut_date", columnList = "statut, date_devis"),
+        @Index(name = "idx_devis_client_date", columnList = "client_id, date_devis"),
+        @Index(name = "idx_devis_date_id", columnList = "date_devis, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Devis {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "devis_seq")
+    @SequenceGenerator(name = "devis_seq", sequenceName = "devis_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "numero_devis", nullable = false, unique = true)
@@ -36,6 +42,11 @@ public class Devis {
     @Column(name = "date_devis", updatable = false)
     private LocalDateTime dateDevis;
 
+    // Version du document (sert de clé au cache des PDF)
+    @UpdateTimestamp
+    @Column(name = "date_modification")
+    private LocalDateTime dateModification;
+
     @Column(name = "total_ht", precision = 12, scale = 2)
     private BigDecimal totalHT = BigDecimal.ZERO;
 
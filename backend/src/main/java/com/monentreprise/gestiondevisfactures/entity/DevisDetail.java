@@ -14,14 +14,15 @@ import java.math.RoundingMode;
  * Entité représentant une ligne de détail d'un devis
  */
 @Entity
-@Table(name = "devis_details")
+@Table(name = "devis_details", indexes = @Index(name = "idx_devis_details_devis", columnList = "devis_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class DevisDetail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "devis_details_seq")
+    @SequenceGenerator(name = "devis_details_seq", sequenceName = "devis_details_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
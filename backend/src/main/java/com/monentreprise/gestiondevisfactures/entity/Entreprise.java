@@ -43,6 +43,18 @@ public class Entreprise {
     @Column(name = "email", length = 100)
     private String email;
 
-    @Column(name = "logo", columnDefinition = "TEXT")
-    private String logo;
+    /**
+     * Image du logo (octets bruts, servie par /api/entreprise/logo/{empreinte})
+     */
+    @Column(name = "logo_contenu", length = 512 * 1024)
+    private byte[] logoContenu;
+
+    @Column(name = "logo_type", length = 50)
+    private String logoType;
+
+    /**
+     * Empreinte SHA-256 du logo, utilisée dans son URL
+     */
+    @Column(name = "logo_empreinte", length = 64)
+    private String logoEmpreinte;
 }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,17 +13,24 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Entité représentant une facture
+ * Entité représentant une facture.
+ * Index composites des requêtes de reporting : statut ou client puis période,
+ * et (date, id) pour les exports par période et la pagination par curseur.
  */
 @Entity
-@Table(name = "factures")
+@Table(name = "factures", indexes = {
+        @Index(name = "idx_factures_statut_date", columnList = "statut, date_facture"),
+        @Index(name = "idx_factures_client_date", columnList = "client_id, date_facture"),
+        @Index(name = "idx_factures_date_id", columnList = "date_facture, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Facture {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "factures_seq")
+    @SequenceGenerator(name = "factures_seq", sequenceName = "factures_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "numero_facture", nullable = false, unique = true)
@@ -40,6 +48,11 @@ public class Facture {
     @Column(name = "date_facture", updatable = false)
     private LocalDateTime dateFacture;
 
+    // Version du document (sert de clé au cache des PDF)
+    @UpdateTimestamp
+    @Column(name = "date_modification")
+    private LocalDateTime dateModification;
+
     @Column(name = "montant_ht", precision = 12, scale = 2)
     private BigDecimal montantHT = BigDecimal.ZERO;
 
@@ -14,14 +14,15 @@ import java.math.RoundingMode;
  * Entité représentant une ligne de détail d'une facture
  */
 @Entity
-@Table(name = "facture_details")
+@Table(name = "facture_details", indexes = @Index(name = "idx_facture_details_facture", columnList = "facture_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class FactureDetail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facture_details_seq")
+    @SequenceGenerator(name = "facture_details_seq", sequenceName = "facture_details_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
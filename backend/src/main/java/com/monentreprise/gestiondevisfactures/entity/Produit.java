@@ -21,7 +21,8 @@ import java.math.BigDecimal;
 public class Produit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produits_seq")
+    @SequenceGenerator(name = "produits_seq", sequenceName = "produits_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le nom du produit est obligatoire")
@@ -0,0 +1,18 @@
+package com.monentreprise.gestiondevisfactures.exception;
+
+/**
+ * Exception levée lorsqu'un traitement borné est saturé (réponse 429)
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
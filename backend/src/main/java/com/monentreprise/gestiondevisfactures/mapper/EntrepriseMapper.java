@@ -28,6 +28,9 @@ public class EntrepriseMapper {
         dto.setPatente(entreprise.getPatente());
         dto.setTelephone(entreprise.getTelephone());
         dto.setEmail(entreprise.getEmail());
+        if (entreprise.getLogoEmpreinte() != null) {
+            dto.setLogoUrl("/api/entreprise/logo/" + entreprise.getLogoEmpreinte());
+        }
         return dto;
     }
 
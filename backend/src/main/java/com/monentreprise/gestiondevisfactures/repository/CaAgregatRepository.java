@@ -0,0 +1,65 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.monentreprise.gestiondevisfactures.entity.CaAgregat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository pour l'entité CaAgregat
+ */
+@Repository
+public interface CaAgregatRepository extends JpaRepository<CaAgregat, Long> {
+
+    /**
+     * Ajoute un montant (positif ou négatif) à un cumul, en le créant si besoin.
+     * L'UPSERT est atomique : les mises à jour concurrentes d'un même cumul ne se perdent pas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ca_aggregates (granularite, periode, client_id, montant, nombre_factures) " +
+                   "VALUES (:granularite, :periode, :clientId, :montant, :nombre) " +
+                   "ON CONFLICT (granularite, periode, client_id) DO UPDATE SET " +
+                   "montant = ca_aggregates.montant + EXCLUDED.montant, " +
+                   "nombre_factures = ca_aggregates.nombre_factures + EXCLUDED.nombre_factures",
+           nativeQuery = true)
+    int ajouter(@Param("granularite") String granularite,
+                @Param("periode") LocalDate periode,
+                @Param("clientId") long clientId,
+                @Param("montant") BigDecimal montant,
+                @Param("nombre") long nombre);
+
+    /**
+     * Bloque les UPSERT concurrents jusqu'à la fin de la transaction (les lectures restent permises)
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE ca_aggregates IN EXCLUSIVE MODE", nativeQuery = true)
+    void verrouiller();
+
+    /**
+     * Récupère un cumul
+     */
+    Optional<CaAgregat> findByGranulariteAndPeriodeAndClientId(CaAgregat.Granularite granularite,
+                                                                LocalDate periode, Long clientId);
+
+    /**
+     * Récupère les cumuls d'une granularité sur un intervalle de périodes (bornes incluses)
+     */
+    List<CaAgregat> findByGranulariteAndClientIdAndPeriodeBetween(CaAgregat.Granularite granularite, Long clientId,
+                                                                   LocalDate debut, LocalDate fin);
+
+    /**
+     * Récupère en une requête les cumuls tous clients : total, mois et année donnés
+     */
+    @Query("SELECT a FROM CaAgregat a WHERE a.clientId = 0 AND (a.granularite = 'TOTAL' " +
+           "OR (a.granularite = 'MOIS' AND a.periode = :debutMois) " +
+           "OR (a.granularite = 'ANNEE' AND a.periode = :debutAnnee))")
+    List<CaAgregat> findTotalMoisAnnee(@Param("debutMois") LocalDate debutMois,
+                                       @Param("debutAnnee") LocalDate debutAnnee);
+}
@@ -1,6 +1,8 @@
 package com.monentreprise.gestiondevisfactures.repository;
 
 import com.monentreprise.gestiondevisfactures.entity.Client;
+import com.monentreprise.gestiondevisfactures.repository.projection.ComptageActifsProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,7 +15,7 @@ import java.util.Optional;
  * Repository pour l'entité Client
  */
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, ClientRepositoryCustom {
 
     /**
      * Recherche un client par email
@@ -26,20 +28,48 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     boolean existsByEmail(String email);
 
     /**
-     * Recherche les clients par nom (contient, insensible à la casse)
+     * Recherche les clients actifs
      */
-    List<Client> findByNomContainingIgnoreCase(String nom);
+    List<Client> findByActifTrue();
 
     /**
-     * Recherche les clients actifs
+     * Recherche les clients par nom ou email (motif LIKE en minuscules, sans index : repli sans pg_trgm)
      */
-    List<Client> findByActifTrue();
+    @Query("SELECT c FROM Client c WHERE " +
+           "LOWER(c.nom) LIKE :motif ESCAPE '\\' OR " +
+           "LOWER(c.email) LIKE :motif ESCAPE '\\' " +
+           "ORDER BY LOWER(c.nom), c.id")
+    List<Client> searchByNomOrEmail(@Param("motif") String motif, Pageable pageable);
 
     /**
-     * Recherche les clients par nom ou email
+     * Recherche les clients dont le nom ou l'email commence par le préfixe (index text_pattern_ops)
      */
     @Query("SELECT c FROM Client c WHERE " +
-           "LOWER(c.nom) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%'))")
-    List<Client> searchByNomOrEmail(@Param("search") String search);
+           "LOWER(c.nom) LIKE :prefixe ESCAPE '\\' OR " +
+           "LOWER(c.email) LIKE :prefixe ESCAPE '\\' " +
+           "ORDER BY LOWER(c.nom), c.id")
+    List<Client> searchByPrefixe(@Param("prefixe") String prefixe, Pageable pageable);
+
+    /**
+     * Recherche par trigrammes (pg_trgm, index GIN) : nom ou email contenant le terme,
+     * ou nom proche du terme (fautes de frappe), classés par similarité décroissante
+     */
+    @Query(value = "SELECT c.* FROM clients c WHERE " +
+           "lower(c.nom) LIKE :motif OR lower(c.email) LIKE :motif OR :terme <% lower(c.nom) " +
+           "ORDER BY GREATEST(word_similarity(:terme, lower(c.nom)), word_similarity(:terme, lower(c.email))) DESC, c.id " +
+           "LIMIT :limite", nativeQuery = true)
+    List<Client> searchByTrigrammes(@Param("terme") String terme, @Param("motif") String motif,
+                                    @Param("limite") int limite);
+
+    /**
+     * Page de clients d'id strictement supérieur au curseur (tri keyset par id)
+     */
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Compte les clients et les clients actifs en une seule requête
+     */
+    @Query("SELECT COUNT(c) AS total, " +
+           "COALESCE(SUM(CASE WHEN c.actif = true THEN 1 ELSE 0 END), 0) AS actifs FROM Client c")
+    ComptageActifsProjection countTotalEtActifs();
 }
@@ -0,0 +1,22 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.monentreprise.gestiondevisfactures.entity.Client;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Opérations spécifiques du repository Client (hors Spring Data)
+ */
+public interface ClientRepositoryCustom {
+
+    /**
+     * Crée ou met à jour des clients par lot JDBC, identifiés par leur email (PostgreSQL).
+     * Un client existant voit son nom et ceux des champs indiqués remplacés ; les autres colonnes
+     * et sa date de création sont conservées. Un actif null vaut true pour un nouveau client et
+     * conserve le statut d'un client existant. Les emails doivent être distincts au sein d'un même lot.
+     *
+     * @param champs attributs à écrire sur un client existant, parmi telephone, adresse et actif
+     */
+    void enregistrerParEmailEnLot(List<Client> clients, Set<String> champs);
+}
@@ -0,0 +1,59 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.monentreprise.gestiondevisfactures.entity.Client;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implémentation JDBC des opérations spécifiques du repository Client
+ */
+@RequiredArgsConstructor
+public class ClientRepositoryImpl implements ClientRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO clients (id, nom, email, telephone, adresse, actif, date_creation) "
+                    + "VALUES (?, ?, ?, ?, ?, COALESCE(?, TRUE), ?) "
+                    + "ON CONFLICT (email) DO UPDATE SET nom = EXCLUDED.nom";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void enregistrerParEmailEnLot(List<Client> clients, Set<String> champs) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        // Un id est réservé pour chaque ligne, même celles qui mettent à jour un client existant
+        long[] ids = IdentifiantsSequence.allouer(jdbcTemplate, "clients_seq", clients.size());
+        for (int i = 0; i < ids.length; i++) {
+            clients.get(i).setId(ids[i]);
+        }
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+        boolean telephone = champs.contains("telephone");
+        boolean adresse = champs.contains("adresse");
+        boolean actif = champs.contains("actif");
+        String sql = INSERT_SQL
+                + (telephone ? ", telephone = EXCLUDED.telephone" : "")
+                + (adresse ? ", adresse = EXCLUDED.adresse" : "")
+                // Paramètre à part : EXCLUDED.actif vaut déjà true quand la cellule est vide
+                + (actif ? ", actif = COALESCE(CAST(? AS BOOLEAN), clients.actif)" : "");
+
+        jdbcTemplate.batchUpdate(sql, clients, clients.size(), (ps, client) -> {
+            ps.setLong(1, client.getId());
+            ps.setString(2, client.getNom());
+            ps.setString(3, client.getEmail());
+            ps.setString(4, client.getTelephone());
+            ps.setString(5, client.getAdresse());
+            ps.setObject(6, client.getActif(), Types.BOOLEAN);
+            ps.setTimestamp(7, maintenant);
+            if (actif) {
+                ps.setObject(8, client.getActif(), Types.BOOLEAN);
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository pour l'entité CompteurNumerotation
+ */
+@Repository
+public interface CompteurNumerotationRepository extends JpaRepository<CompteurNumerotation, Long> {
+
+    /**
+     * Récupère le compteur d'un type et d'une année en le verrouillant jusqu'à la fin de la transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CompteurNumerotation c WHERE c.typeDocument = :type AND c.annee = :annee")
+    Optional<CompteurNumerotation> findForUpdate(@Param("type") CompteurNumerotation.TypeDocument type,
+                                                 @Param("annee") int annee);
+
+    /**
+     * Crée le compteur s'il n'existe pas encore (sans erreur en cas de création concurrente)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO compteurs_numerotation (type_document, annee, valeur) " +
+                   "VALUES (:type, :annee, :valeur) ON CONFLICT (type_document, annee) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("type") String type, @Param("annee") int annee, @Param("valeur") long valeur);
+}
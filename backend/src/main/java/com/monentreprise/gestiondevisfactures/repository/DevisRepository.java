@@ -1,6 +1,10 @@
 package com.monentreprise.gestiondevisfactures.repository;
 
+import com.monentreprise.gestiondevisfactures.dto.DevisSummary;
 import com.monentreprise.gestiondevisfactures.entity.Devis;
+import com.monentreprise.gestiondevisfactures.repository.projection.DocumentVersionProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,6 +20,13 @@ import java.util.Optional;
 @Repository
 public interface DevisRepository extends JpaRepository<Devis, Long> {
 
+    /**
+     * Récupère tous les devis avec leur client (les lignes sont chargées par lots)
+     */
+    @Override
+    @EntityGraph(attributePaths = "client")
+    List<Devis> findAll();
+
     /**
      * Recherche un devis par son numéro
      */
@@ -32,15 +43,13 @@ public interface DevisRepository extends JpaRepository<Devis, Long> {
     List<Devis> findByStatut(Devis.StatutDevis statut);
 
     /**
-     * Recherche les devis entre deux dates
-     */
-    List<Devis> findByDateDevisBetween(LocalDateTime debut, LocalDateTime fin);
-
-    /**
-     * Compte les devis d'une année pour générer le numéro
+     * Plus grande séquence déjà attribuée pour un préfixe (ex : "DEV-2025-"),
+     * utilisée pour initialiser le compteur de numérotation de l'année
      */
-    @Query("SELECT COUNT(d) FROM Devis d WHERE YEAR(d.dateDevis) = :annee")
-    Long countByAnnee(@Param("annee") int annee);
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(numero_devis FROM CHAR_LENGTH(:prefixe) + 1) AS BIGINT)), 0) " +
+                   "FROM devis WHERE numero_devis LIKE CONCAT(:prefixe, '%')",
+           nativeQuery = true)
+    long findDernierNumeroSequence(@Param("prefixe") String prefixe);
 
     /**
      * Recherche les devis avec leurs lignes (évite N+1)
@@ -53,4 +62,50 @@ public interface DevisRepository extends JpaRepository<Devis, Long> {
      */
     @Query("SELECT DISTINCT d FROM Devis d LEFT JOIN FETCH d.lignes WHERE d.client.id = :clientId ORDER BY d.dateDevis DESC")
     List<Devis> findByClientIdWithLignes(@Param("clientId") Long clientId);
+
+    /**
+     * Première page des devis (tri keyset : date puis id, décroissants)
+     */
+    @EntityGraph(attributePaths = "client")
+    @Query("SELECT d FROM Devis d ORDER BY d.dateDevis DESC, d.id DESC")
+    List<Devis> findFirstPage(Pageable pageable);
+
+    /**
+     * Page de devis située après le curseur (date, id) ; la borne date <= curseur parcourt
+     * l'index (date, id) dans l'ordre du tri, sans trier toutes les lignes antérieures
+     */
+    @EntityGraph(attributePaths = "client")
+    @Query("SELECT d FROM Devis d WHERE d.dateDevis <= :date AND (d.dateDevis < :date OR d.id < :id) " +
+           "ORDER BY d.dateDevis DESC, d.id DESC")
+    List<Devis> findPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Compte les devis par statut
+     */
+    @Query("SELECT d.statut, COUNT(d) FROM Devis d GROUP BY d.statut")
+    List<Object[]> countByStatut();
+
+    /**
+     * Résumés des devis pour les listes (sans chargement des lignes), tri keyset date puis id décroissants
+     */
+    @Query("SELECT new com.monentreprise.gestiondevisfactures.dto.DevisSummary(" +
+           "d.id, d.numeroDevis, d.dateDevis, c.id, c.nom, d.statut, d.totalTTC) " +
+           "FROM Devis d JOIN d.client c ORDER BY d.dateDevis DESC, d.id DESC")
+    List<DevisSummary> findSummaryFirstPage(Pageable pageable);
+
+    /**
+     * Résumés des devis situés après le curseur (date, id)
+     */
+    @Query("SELECT new com.monentreprise.gestiondevisfactures.dto.DevisSummary(" +
+           "d.id, d.numeroDevis, d.dateDevis, c.id, c.nom, d.statut, d.totalTTC) " +
+           "FROM Devis d JOIN d.client c " +
+           "WHERE d.dateDevis <= :date AND (d.dateDevis < :date OR d.id < :id) " +
+           "ORDER BY d.dateDevis DESC, d.id DESC")
+    List<DevisSummary> findSummaryPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Récupère le numéro et la version d'un devis sans charger ses lignes
+     */
+    @Query("SELECT d.id AS id, d.numeroDevis AS numero, d.dateModification AS dateModification FROM Devis d WHERE d.id = :id")
+    Optional<DocumentVersionProjection> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,105 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.monentreprise.gestiondevisfactures.config.ExportProperties;
+import com.monentreprise.gestiondevisfactures.dto.FactureDetailExportLigne;
+import com.monentreprise.gestiondevisfactures.dto.FactureExportLigne;
+import com.monentreprise.gestiondevisfactures.dto.FiltreExportFactures;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lecture JDBC en flux des factures et de leurs lignes pour les exports.
+ * Requête en avant seulement avec fetch size borné : dans une transaction,
+ * le pilote PostgreSQL lit les lignes par paquets via un curseur serveur
+ * au lieu de charger tout le résultat en mémoire.
+ */
+@Repository
+public class FactureExportRepository {
+
+    private static final String FACTURES_SQL =
+            "SELECT f.id, f.numero_facture, f.date_facture, f.statut, f.mode_paiement, "
+                    + "f.client_id, c.nom AS client_nom, f.montant_ht, f.montant_tva, f.montant_ttc "
+                    + "FROM factures f JOIN clients c ON c.id = f.client_id";
+
+    private static final String LIGNES_SQL =
+            "SELECT d.id, d.facture_id, f.numero_facture, d.produit_id, p.nom AS produit_nom, "
+                    + "d.quantite, d.prix_unitaire_ht, d.tva, d.total_ligne_ht, d.total_ligne_ttc "
+                    + "FROM facture_details d "
+                    + "JOIN factures f ON f.id = d.facture_id "
+                    + "JOIN produits p ON p.id = d.produit_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FactureExportRepository(DataSource dataSource, ExportProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+    }
+
+    /**
+     * Transmet chaque facture retenue, dans l'ordre des ids
+     */
+    public void parcourirFactures(FiltreExportFactures filtre, Consumer<FactureExportLigne> traitement) {
+        List<Object> parametres = new ArrayList<>();
+        String sql = FACTURES_SQL + where(filtre, parametres) + " ORDER BY f.id";
+        jdbcTemplate.query(sql, rs -> {
+            traitement.accept(new FactureExportLigne(
+                    rs.getLong("id"),
+                    rs.getString("numero_facture"),
+                    rs.getObject("date_facture", LocalDateTime.class),
+                    rs.getString("statut"),
+                    rs.getString("mode_paiement"),
+                    rs.getLong("client_id"),
+                    rs.getString("client_nom"),
+                    rs.getBigDecimal("montant_ht"),
+                    rs.getBigDecimal("montant_tva"),
+                    rs.getBigDecimal("montant_ttc")));
+        }, parametres.toArray());
+    }
+
+    /**
+     * Transmet chaque ligne des factures retenues, groupées par facture
+     */
+    public void parcourirLignes(FiltreExportFactures filtre, Consumer<FactureDetailExportLigne> traitement) {
+        List<Object> parametres = new ArrayList<>();
+        String sql = LIGNES_SQL + where(filtre, parametres) + " ORDER BY d.facture_id, d.id";
+        jdbcTemplate.query(sql, rs -> {
+            traitement.accept(new FactureDetailExportLigne(
+                    rs.getLong("id"),
+                    rs.getLong("facture_id"),
+                    rs.getString("numero_facture"),
+                    rs.getLong("produit_id"),
+                    rs.getString("produit_nom"),
+                    rs.getInt("quantite"),
+                    rs.getBigDecimal("prix_unitaire_ht"),
+                    rs.getBigDecimal("tva"),
+                    rs.getBigDecimal("total_ligne_ht"),
+                    rs.getBigDecimal("total_ligne_ttc")));
+        }, parametres.toArray());
+    }
+
+    /**
+     * Conditions sur la facture f ; la période [debut, fin] devient [debut, fin + 1 jour[
+     */
+    private static String where(FiltreExportFactures filtre, List<Object> parametres) {
+        List<String> conditions = new ArrayList<>();
+        if (filtre.debut() != null) {
+            conditions.add("f.date_facture >= ?");
+            parametres.add(filtre.debut().atStartOfDay());
+        }
+        if (filtre.fin() != null) {
+            conditions.add("f.date_facture < ?");
+            parametres.add(filtre.fin().plusDays(1).atStartOfDay());
+        }
+        if (filtre.statut() != null) {
+            conditions.add("f.statut = ?");
+            parametres.add(filtre.statut().name());
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
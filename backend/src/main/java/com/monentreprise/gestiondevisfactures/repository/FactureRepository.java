@@ -1,6 +1,10 @@
 package com.monentreprise.gestiondevisfactures.repository;
 
+import com.monentreprise.gestiondevisfactures.dto.FactureSummary;
 import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.repository.projection.DocumentVersionProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,6 +21,13 @@ import java.util.Optional;
 @Repository
 public interface FactureRepository extends JpaRepository<Facture, Long> {
 
+    /**
+     * Récupère toutes les factures avec client et devis d'origine (les lignes sont chargées par lots)
+     */
+    @Override
+    @EntityGraph(attributePaths = {"client", "devisOrigine"})
+    List<Facture> findAll();
+
     /**
      * Recherche une facture par son numéro
      */
@@ -25,23 +36,23 @@ public interface FactureRepository extends JpaRepository<Facture, Long> {
     /**
      * Recherche les factures d'un client
      */
+    @EntityGraph(attributePaths = {"client", "devisOrigine"})
     List<Facture> findByClientId(Long clientId);
 
     /**
      * Recherche les factures par statut
      */
+    @EntityGraph(attributePaths = {"client", "devisOrigine"})
     List<Facture> findByStatut(Facture.StatutFacture statut);
 
     /**
-     * Recherche les factures entre deux dates
+     * Plus grande séquence déjà attribuée pour un préfixe (ex : "FAC-2025-"),
+     * utilisée pour initialiser le compteur de numérotation de l'année
      */
-    List<Facture> findByDateFactureBetween(LocalDateTime debut, LocalDateTime fin);
-
-    /**
-     * Compte les factures d'une année pour générer le numéro
-     */
-    @Query("SELECT COUNT(f) FROM Facture f WHERE YEAR(f.dateFacture) = :annee")
-    Long countByAnnee(@Param("annee") int annee);
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(numero_facture FROM CHAR_LENGTH(:prefixe) + 1) AS BIGINT)), 0) " +
+                   "FROM factures WHERE numero_facture LIKE CONCAT(:prefixe, '%')",
+           nativeQuery = true)
+    long findDernierNumeroSequence(@Param("prefixe") String prefixe);
 
     /**
      * Calcule le CA total des factures payées
@@ -49,20 +60,6 @@ public interface FactureRepository extends JpaRepository<Facture, Long> {
     @Query("SELECT COALESCE(SUM(f.montantTTC), 0) FROM Facture f WHERE f.statut = 'PAYEE'")
     BigDecimal calculateTotalCA();
 
-    /**
-     * Calcule le CA des factures payées sur une période
-     */
-    @Query("SELECT COALESCE(SUM(f.montantTTC), 0) FROM Facture f WHERE f.statut = 'PAYEE' AND f.dateFacture BETWEEN :debut AND :fin")
-    BigDecimal calculateCAByPeriode(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
-
-    /**
-     * Calcule le CA par mois pour une année donnée
-     */
-    @Query("SELECT MONTH(f.dateFacture) as mois, COALESCE(SUM(f.montantTTC), 0) as ca " +
-           "FROM Facture f WHERE f.statut = 'PAYEE' AND YEAR(f.dateFacture) = :annee " +
-           "GROUP BY MONTH(f.dateFacture) ORDER BY MONTH(f.dateFacture)")
-    List<Object[]> calculateCAByMois(@Param("annee") int annee);
-
     /**
      * Recherche les factures avec leurs lignes (évite N+1)
      */
@@ -76,8 +73,66 @@ public interface FactureRepository extends JpaRepository<Facture, Long> {
     List<Object[]> countByStatut();
 
     /**
-     * Calcule le CA d'un client (factures payées)
+     * Première page des factures (tri keyset : date puis id, décroissants)
+     */
+    @EntityGraph(attributePaths = {"client", "devisOrigine"})
+    @Query("SELECT f FROM Facture f ORDER BY f.dateFacture DESC, f.id DESC")
+    List<Facture> findFirstPage(Pageable pageable);
+
+    /**
+     * Page de factures située après le curseur (date, id) ; la borne date <= curseur parcourt
+     * l'index (date, id) dans l'ordre du tri, sans trier toutes les lignes antérieures
+     */
+    @EntityGraph(attributePaths = {"client", "devisOrigine"})
+    @Query("SELECT f FROM Facture f WHERE f.dateFacture <= :date AND (f.dateFacture < :date OR f.id < :id) " +
+           "ORDER BY f.dateFacture DESC, f.id DESC")
+    List<Facture> findPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Résumés des factures pour les listes (sans chargement des lignes), tri keyset date puis id décroissants
+     */
+    @Query("SELECT new com.monentreprise.gestiondevisfactures.dto.FactureSummary(" +
+           "f.id, f.numeroFacture, f.dateFacture, c.id, c.nom, f.statut, f.modePaiement, f.montantTTC) " +
+           "FROM Facture f JOIN f.client c ORDER BY f.dateFacture DESC, f.id DESC")
+    List<FactureSummary> findSummaryFirstPage(Pageable pageable);
+
+    /**
+     * Résumés des factures situées après le curseur (date, id)
+     */
+    @Query("SELECT new com.monentreprise.gestiondevisfactures.dto.FactureSummary(" +
+           "f.id, f.numeroFacture, f.dateFacture, c.id, c.nom, f.statut, f.modePaiement, f.montantTTC) " +
+           "FROM Facture f JOIN f.client c " +
+           "WHERE f.dateFacture <= :date AND (f.dateFacture < :date OR f.id < :id) " +
+           "ORDER BY f.dateFacture DESC, f.id DESC")
+    List<FactureSummary> findSummaryPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Récupère le numéro et la version d'une facture sans charger ses lignes
+     */
+    @Query("SELECT f.id AS id, f.numeroFacture AS numero, f.dateModification AS dateModification FROM Facture f WHERE f.id = :id")
+    Optional<DocumentVersionProjection> findVersionById(@Param("id") Long id);
+
+    /**
+     * Références (id, numéro, version) des factures d'une période, filtrées par statut si fourni
+     */
+    @Query("SELECT f.id AS id, f.numeroFacture AS numero, f.dateModification AS dateModification FROM Facture f " +
+           "WHERE f.dateFacture >= :debut AND f.dateFacture < :fin " +
+           "AND (:statut IS NULL OR f.statut = :statut) " +
+           "ORDER BY f.dateFacture, f.id")
+    List<DocumentVersionProjection> findVersionsForExport(@Param("debut") LocalDateTime debut,
+                                                          @Param("fin") LocalDateTime fin,
+                                                          @Param("statut") Facture.StatutFacture statut);
+
+    /**
+     * Indique s'il existe au moins une facture dans ce statut
+     */
+    boolean existsByStatut(Facture.StatutFacture statut);
+
+    /**
+     * CA et nombre de factures payées par jour et par client (reconstruction des cumuls)
      */
-    @Query("SELECT COALESCE(SUM(f.montantTTC), 0) FROM Facture f WHERE f.client.id = :clientId AND f.statut = 'PAYEE'")
-    BigDecimal calculateCAByClient(@Param("clientId") Long clientId);
+    @Query("SELECT CAST(f.dateFacture AS LocalDate), f.client.id, SUM(f.montantTTC), COUNT(f) " +
+           "FROM Facture f WHERE f.statut = 'PAYEE' " +
+           "GROUP BY CAST(f.dateFacture AS LocalDate), f.client.id")
+    List<Object[]> sumPayeesParJourEtClient();
 }
@@ -0,0 +1,27 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.monentreprise.gestiondevisfactures.config.SequenceInitializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Allocation d'ids pour les INSERT JDBC, par blocs sur les séquences « pooled ».
+ * Comme l'optimiseur Hibernate, un nextval qui renvoie v réserve les ids v - 49 .. v :
+ * les ids alloués ici et ceux d'Hibernate ne se chevauchent jamais.
+ */
+final class IdentifiantsSequence {
+
+    private IdentifiantsSequence() {
+    }
+
+    static long[] allouer(JdbcTemplate jdbcTemplate, String sequence, int nombre) {
+        long[] ids = new long[nombre];
+        int i = 0;
+        while (i < nombre) {
+            Long fin = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+            for (long id = Math.max(1, fin - SequenceInitializer.ALLOCATION_SIZE + 1); id <= fin && i < nombre; id++) {
+                ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+}
@@ -1,18 +1,22 @@
 package com.monentreprise.gestiondevisfactures.repository;
 
 import com.monentreprise.gestiondevisfactures.entity.Produit;
+import com.monentreprise.gestiondevisfactures.repository.projection.ComptageActifsProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Repository pour l'entité Produit
  */
 @Repository
-public interface ProduitRepository extends JpaRepository<Produit, Long> {
+public interface ProduitRepository extends JpaRepository<Produit, Long>, ProduitRepositoryCustom {
 
     /**
      * Recherche les produits par nom (contient, insensible à la casse)
@@ -35,16 +39,57 @@ public interface ProduitRepository extends JpaRepository<Produit, Long> {
     List<Produit> findByStockGreaterThan(Integer stock);
 
     /**
-     * Recherche les produits par nom et/ou catégorie
+     * Recherche les produits par nom et/ou catégorie (motifs LIKE en minuscules, null = sans filtre)
      */
     @Query("SELECT p FROM Produit p WHERE " +
-           "(:nom IS NULL OR LOWER(p.nom) LIKE LOWER(CONCAT('%', :nom, '%'))) AND " +
-           "(:categorie IS NULL OR LOWER(p.categorie) LIKE LOWER(CONCAT('%', :categorie, '%')))")
-    List<Produit> searchByNomAndCategorie(@Param("nom") String nom, @Param("categorie") String categorie);
+           "(:nom IS NULL OR LOWER(p.nom) LIKE :nom ESCAPE '\\') AND " +
+           "(:categorie IS NULL OR LOWER(p.categorie) LIKE :categorie ESCAPE '\\') " +
+           "ORDER BY LOWER(p.nom), p.id")
+    List<Produit> searchByNomAndCategorie(@Param("nom") String nom, @Param("categorie") String categorie,
+                                          Pageable pageable);
 
     /**
-     * Récupère toutes les catégories distinctes
+     * Recherche par trigrammes (pg_trgm, index GIN) : nom contenant le terme ou proche du terme,
+     * catégorie facultative, classés par similarité décroissante
      */
-    @Query("SELECT DISTINCT p.categorie FROM Produit p WHERE p.categorie IS NOT NULL ORDER BY p.categorie")
-    List<String> findAllCategories();
+    @Query(value = "SELECT p.* FROM produits p WHERE " +
+           "(lower(p.nom) LIKE :motif OR :terme <% lower(p.nom)) " +
+           "AND (CAST(:categorie AS text) IS NULL OR lower(p.categorie) LIKE CAST(:categorie AS text)) " +
+           "ORDER BY word_similarity(:terme, lower(p.nom)) DESC, p.id " +
+           "LIMIT :limite", nativeQuery = true)
+    List<Produit> searchByTrigrammes(@Param("terme") String terme, @Param("motif") String motif,
+                                     @Param("categorie") String categorie, @Param("limite") int limite);
+
+    /**
+     * Page de produits d'id strictement supérieur au curseur (tri keyset par id)
+     */
+    List<Produit> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Compte les produits et les produits actifs en une seule requête
+     */
+    @Query("SELECT COUNT(p) AS total, " +
+           "COALESCE(SUM(CASE WHEN p.actif = true THEN 1 ELSE 0 END), 0) AS actifs FROM Produit p")
+    ComptageActifsProjection countTotalEtActifs();
+
+    /**
+     * Décrémente le stock d'un produit si la quantité est disponible (mise à jour atomique)
+     *
+     * @return 1 si le stock a été décrémenté, 0 si le stock est insuffisant
+     */
+    @Modifying
+    @Query("UPDATE Produit p SET p.stock = p.stock - :quantite WHERE p.id = :id AND p.stock >= :quantite")
+    int decrementerStock(@Param("id") Long id, @Param("quantite") int quantite);
+
+    /**
+     * Lit le nom et le stock courant (en base) de plusieurs produits
+     */
+    @Query("SELECT p.id, p.nom, p.stock FROM Produit p WHERE p.id IN :ids")
+    List<Object[]> findStocksByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Colonnes de l'index d'autocomplétion (id, nom, categorie, prixUnitaireHT, actif), sans charger d'entités
+     */
+    @Query("SELECT p.id, p.nom, p.categorie, p.prixUnitaireHT, p.actif FROM Produit p")
+    List<Object[]> findChampsAutocompletion();
 }
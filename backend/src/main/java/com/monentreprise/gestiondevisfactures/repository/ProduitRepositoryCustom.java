@@ -0,0 +1,36 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opérations spécifiques du repository Produit (hors Spring Data)
+ */
+public interface ProduitRepositoryCustom {
+
+    /**
+     * Décrémente en un seul aller-retour JDBC le stock de plusieurs produits.
+     * Chaque mise à jour est conditionnelle (stock >= quantité) : aucune vente à découvert.
+     *
+     * @param quantitesParProduit quantité à retirer par id de produit
+     * @return les ids des produits dont le stock était insuffisant (non modifiés)
+     */
+    List<Long> decrementerStocks(Map<Long, Integer> quantitesParProduit);
+
+    /**
+     * Insère des produits nouveaux par lot JDBC ; les ids alloués sont reportés sur les entités
+     */
+    void insererEnLot(List<Produit> produits);
+
+    /**
+     * Met à jour par lot JDBC les champs indiqués de produits existants ; les autres colonnes
+     * sont conservées, de même que le statut d'un produit dont actif est null
+     *
+     * @param champs noms des attributs à écrire (nom, description, prixUnitaireHT, stock, categorie, actif)
+     * @return les ids sans produit correspondant (rien n'a été modifié pour eux)
+     */
+    List<Long> mettreAJourEnLot(List<Produit> produits, Set<String> champs);
+}
@@ -0,0 +1,122 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation JDBC des opérations spécifiques du repository Produit
+ */
+@RequiredArgsConstructor
+public class ProduitRepositoryImpl implements ProduitRepositoryCustom {
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE produits SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO produits (id, nom, description, prix_unitaire_ht, stock, categorie, actif) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Affectation de chaque champ modifiable ; un actif null conserve le statut actuel
+     */
+    private static final Map<String, String> AFFECTATIONS = new LinkedHashMap<>();
+
+    static {
+        AFFECTATIONS.put("nom", "nom = ?");
+        AFFECTATIONS.put("description", "description = ?");
+        AFFECTATIONS.put("prixUnitaireHT", "prix_unitaire_ht = ?");
+        AFFECTATIONS.put("stock", "stock = ?");
+        AFFECTATIONS.put("categorie", "categorie = ?");
+        AFFECTATIONS.put("actif", "actif = COALESCE(?, actif)");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> decrementerStocks(Map<Long, Integer> quantitesParProduit) {
+        List<Map.Entry<Long, Integer>> lignes = new ArrayList<>(quantitesParProduit.entrySet());
+        if (lignes.isEmpty()) {
+            return List.of();
+        }
+
+        int[][] resultats = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, lignes, lignes.size(), (ps, ligne) -> {
+            ps.setInt(1, ligne.getValue());
+            ps.setLong(2, ligne.getKey());
+            ps.setInt(3, ligne.getValue());
+        });
+
+        // Une mise à jour qui n'affecte aucune ligne signale un stock insuffisant
+        List<Long> enRupture = new ArrayList<>();
+        for (int i = 0; i < lignes.size(); i++) {
+            if (resultats[0][i] == 0) {
+                enRupture.add(lignes.get(i).getKey());
+            }
+        }
+        return enRupture;
+    }
+
+    @Override
+    public void insererEnLot(List<Produit> produits) {
+        if (produits.isEmpty()) {
+            return;
+        }
+        long[] ids = IdentifiantsSequence.allouer(jdbcTemplate, "produits_seq", produits.size());
+        for (int i = 0; i < ids.length; i++) {
+            produits.get(i).setId(ids[i]);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, produits, produits.size(), (ps, produit) -> {
+            ps.setLong(1, produit.getId());
+            ps.setString(2, produit.getNom());
+            ps.setString(3, produit.getDescription());
+            ps.setBigDecimal(4, produit.getPrixUnitaireHT());
+            ps.setInt(5, produit.getStock());
+            ps.setString(6, produit.getCategorie());
+            ps.setBoolean(7, produit.getActif());
+        });
+    }
+
+    @Override
+    public List<Long> mettreAJourEnLot(List<Produit> produits, Set<String> champs) {
+        List<String> modifies = AFFECTATIONS.keySet().stream().filter(champs::contains).toList();
+        if (produits.isEmpty() || modifies.isEmpty()) {
+            return List.of();
+        }
+        String sql = "UPDATE produits SET "
+                + modifies.stream().map(AFFECTATIONS::get).collect(Collectors.joining(", "))
+                + " WHERE id = ?";
+
+        int[][] resultats = jdbcTemplate.batchUpdate(sql, produits, produits.size(), (ps, produit) -> {
+            int i = 1;
+            for (String champ : modifies) {
+                switch (champ) {
+                    case "nom" -> ps.setString(i++, produit.getNom());
+                    case "description" -> ps.setString(i++, produit.getDescription());
+                    case "prixUnitaireHT" -> ps.setBigDecimal(i++, produit.getPrixUnitaireHT());
+                    case "stock" -> ps.setInt(i++, produit.getStock());
+                    case "categorie" -> ps.setString(i++, produit.getCategorie());
+                    case "actif" -> ps.setObject(i++, produit.getActif(), Types.BOOLEAN);
+                    default -> throw new IllegalStateException("Champ non modifiable : " + champ);
+                }
+            }
+            ps.setLong(i, produit.getId());
+        });
+
+        List<Long> introuvables = new ArrayList<>();
+        for (int i = 0; i < produits.size(); i++) {
+            if (resultats[0][i] == 0) {
+                introuvables.add(produits.get(i).getId());
+            }
+        }
+        return introuvables;
+    }
+}
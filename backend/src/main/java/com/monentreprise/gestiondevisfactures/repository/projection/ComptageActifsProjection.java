@@ -0,0 +1,11 @@
+package com.monentreprise.gestiondevisfactures.repository.projection;
+
+/**
+ * Projection d'un comptage total / actifs calculé en une seule requête
+ */
+public interface ComptageActifsProjection {
+
+    Long getTotal();
+
+    Long getActifs();
+}
@@ -0,0 +1,15 @@
+package com.monentreprise.gestiondevisfactures.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection de l'identifiant, du numéro et de la version (date de modification) d'un document
+ */
+public interface DocumentVersionProjection {
+
+    Long getId();
+
+    String getNumero();
+
+    LocalDateTime getDateModification();
+}
@@ -0,0 +1,45 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.dto.SuggestionProduitDTO;
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+
+import java.util.List;
+
+/**
+ * Interface de l'index d'autocomplétion des produits, tenu en mémoire
+ * (noms des produits actifs et catégories, insensibles à la casse et aux accents)
+ */
+public interface AutocompletionService {
+
+    /**
+     * Produits actifs dont le nom, ou l'un de ses mots, commence par le préfixe :
+     * débuts de nom d'abord, puis par ordre alphabétique
+     */
+    List<SuggestionProduitDTO> suggererProduits(String prefixe, Integer limite);
+
+    /**
+     * Catégories commençant par le préfixe, toutes si le préfixe est vide
+     */
+    List<String> suggererCategories(String prefixe);
+
+    /**
+     * Ajoute ou remplace un produit dans l'index, à la validation de la transaction en cours
+     */
+    void enregistrer(Produit produit);
+
+    /**
+     * Retire un produit de l'index, à la validation de la transaction en cours
+     */
+    void retirer(Long id);
+
+    /**
+     * Reconstruit l'index depuis la base
+     */
+    void reconstruire();
+
+    /**
+     * Reconstruit l'index depuis la base à la validation de la transaction en cours
+     * (modifications en masse, où des ajouts un à un coûteraient un décalage chacun)
+     */
+    void reconstruireApresValidation();
+}
@@ -0,0 +1,25 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+
+/**
+ * Interface du service de maintenance des cumuls de chiffre d'affaires (table ca_aggregates)
+ */
+public interface CaAgregatService {
+
+    /**
+     * Répercute un changement de statut d'une facture (entrée ou sortie de l'état PAYEE)
+     */
+    void enregistrerChangementStatut(Facture facture, Facture.StatutFacture ancienStatut);
+
+    /**
+     * Retire des cumuls une facture supprimée
+     */
+    void enregistrerSuppression(Facture facture);
+
+    /**
+     * Recalcule tous les cumuls depuis les factures (initialisation ou correction d'écart)
+     * et retourne le nombre de cumuls écrits
+     */
+    int reconstruire();
+}
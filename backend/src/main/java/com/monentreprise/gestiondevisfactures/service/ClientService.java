@@ -1,6 +1,7 @@
 package com.monentreprise.gestiondevisfactures.service;
 
 import com.monentreprise.gestiondevisfactures.dto.ClientDTO;
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 
 import java.util.List;
 
@@ -14,6 +15,11 @@ public interface ClientService {
      */
     List<ClientDTO> findAll();
 
+    /**
+     * Récupère une page de clients à partir d'un curseur (pagination keyset)
+     */
+    CursorPageDTO<ClientDTO> findPage(String cursor, int size);
+
     /**
      * Récupère les clients actifs
      */
@@ -40,12 +46,9 @@ public interface ClientService {
     void delete(Long id);
 
     /**
-     * Recherche des clients par nom
-     */
-    List<ClientDTO> searchByNom(String nom);
-
-    /**
-     * Recherche des clients par nom ou email
+     * Recherche des clients par nom ou email, les plus pertinents d'abord
+     *
+     * @param limite nombre maximal de résultats (null = valeur par défaut)
      */
-    List<ClientDTO> search(String search);
+    List<ClientDTO> search(String search, Integer limite);
 }
@@ -1,6 +1,8 @@
 package com.monentreprise.gestiondevisfactures.service;
 
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.dto.DevisDTO;
+import com.monentreprise.gestiondevisfactures.dto.DevisSummary;
 import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
 
 import java.util.List;
@@ -15,6 +17,21 @@ public interface DevisService {
      */
     List<DevisDTO> findAll();
 
+    /**
+     * Récupère une page de devis à partir d'un curseur (pagination keyset)
+     */
+    CursorPageDTO<DevisDTO> findPage(String cursor, int size);
+
+    /**
+     * Récupère les résumés de tous les devis (écrans de liste)
+     */
+    List<DevisSummary> findAllSummaries();
+
+    /**
+     * Récupère une page de résumés de devis à partir d'un curseur
+     */
+    CursorPageDTO<DevisSummary> findSummaryPage(String cursor, int size);
+
     /**
      * Récupère un devis par son ID
      */
@@ -1,6 +1,7 @@
 package com.monentreprise.gestiondevisfactures.service;
 
 import com.monentreprise.gestiondevisfactures.dto.EntrepriseDTO;
+import com.monentreprise.gestiondevisfactures.dto.ProfilEntreprise;
 
 /**
  * Service pour la gestion des informations de l'entreprise
@@ -12,6 +13,11 @@ public interface EntrepriseService {
      */
     EntrepriseDTO getEntreprise();
 
+    /**
+     * Récupère les informations de l'entreprise avec leur ETag (servies depuis le cache en mémoire)
+     */
+    ProfilEntreprise getProfil();
+
     /**
      * Crée ou met à jour les informations de l'entreprise
      */
@@ -0,0 +1,30 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.dto.FiltreExportFactures;
+import com.monentreprise.gestiondevisfactures.dto.FormatExport;
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Interface du service d'export en flux des factures (NDJSON, CSV)
+ */
+public interface ExportFactureService {
+
+    /**
+     * Valide les critères d'export (tous facultatifs)
+     */
+    FiltreExportFactures filtre(LocalDate debut, LocalDate fin, Facture.StatutFacture statut);
+
+    /**
+     * Écrit les factures retenues au fil de leur lecture
+     */
+    void ecrireFactures(FiltreExportFactures filtre, FormatExport format, OutputStream out) throws IOException;
+
+    /**
+     * Écrit les lignes des factures retenues au fil de leur lecture
+     */
+    void ecrireLignes(FiltreExportFactures filtre, FormatExport format, OutputStream out) throws IOException;
+}
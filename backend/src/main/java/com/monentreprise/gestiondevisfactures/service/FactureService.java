@@ -1,6 +1,8 @@
 package com.monentreprise.gestiondevisfactures.service;
 
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
+import com.monentreprise.gestiondevisfactures.dto.FactureSummary;
 import com.monentreprise.gestiondevisfactures.entity.Facture;
 
 import java.util.List;
@@ -15,6 +17,21 @@ public interface FactureService {
      */
     List<FactureDTO> findAll();
 
+    /**
+     * Récupère une page de factures à partir d'un curseur (pagination keyset)
+     */
+    CursorPageDTO<FactureDTO> findPage(String cursor, int size);
+
+    /**
+     * Récupère les résumés de toutes les factures (écrans de liste)
+     */
+    List<FactureSummary> findAllSummaries();
+
+    /**
+     * Récupère une page de résumés de factures à partir d'un curseur
+     */
+    CursorPageDTO<FactureSummary> findSummaryPage(String cursor, int size);
+
     /**
      * Récupère une facture par son ID
      */
@@ -0,0 +1,22 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.dto.ImportRapportDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Interface du service d'import CSV du catalogue produits et des clients
+ */
+public interface ImportCsvService {
+
+    /**
+     * Importe des produits : ligne avec id = mise à jour, sans id = création
+     */
+    ImportRapportDTO importerProduits(InputStream csv) throws IOException;
+
+    /**
+     * Importe des clients : création, ou mise à jour du client de même email
+     */
+    ImportRapportDTO importerClients(InputStream csv) throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
+
+/**
+ * Interface du service d'attribution des numéros de documents
+ */
+public interface NumerotationService {
+
+    /**
+     * Attribue le prochain numéro de l'année en cours pour un type de document
+     * (ex : DEV-2025-0001). Doit être appelé dans la transaction de création du document.
+     */
+    String prochainNumero(CompteurNumerotation.TypeDocument type);
+}
@@ -0,0 +1,33 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
+
+import java.util.function.Supplier;
+
+/**
+ * Interface du cache des PDF générés, indexé par document et version
+ */
+public interface PdfCacheService {
+
+    /**
+     * Retourne le PDF de cette version du document, en le générant si absent du cache
+     */
+    PdfFichier getOrRender(CompteurNumerotation.TypeDocument type, Long id, String version, String nomFichier, Supplier<byte[]> rendu);
+
+    /**
+     * Supprime du cache toutes les versions d'un document
+     */
+    void invalider(CompteurNumerotation.TypeDocument type, Long id);
+
+    /**
+     * Vide complètement le cache (ex : changement des informations de l'entreprise)
+     */
+    void invaliderTout();
+
+    /**
+     * Vide complètement le cache une fois la transaction en cours validée, tout de suite hors
+     * transaction (ex : modification d'un client ou d'un produit repris dans les PDF)
+     */
+    void invaliderToutApresValidation();
+}
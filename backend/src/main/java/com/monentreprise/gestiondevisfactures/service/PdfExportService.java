@@ -0,0 +1,25 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.repository.projection.DocumentVersionProjection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interface du service d'export des PDF en lot
+ */
+public interface PdfExportService {
+
+    /**
+     * Sélectionne les factures à exporter (période incluse et/ou statut)
+     */
+    List<DocumentVersionProjection> facturesAExporter(LocalDate debut, LocalDate fin, Facture.StatutFacture statut);
+
+    /**
+     * Écrit l'archive ZIP des PDF des factures au fil de leur rendu
+     */
+    void ecrireZipFactures(List<DocumentVersionProjection> factures, OutputStream out) throws IOException;
+}
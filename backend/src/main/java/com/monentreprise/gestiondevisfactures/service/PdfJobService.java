@@ -0,0 +1,26 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
+import com.monentreprise.gestiondevisfactures.dto.PdfJobDTO;
+import com.monentreprise.gestiondevisfactures.dto.PdfJobRequest;
+
+/**
+ * Interface du service de génération PDF asynchrone
+ */
+public interface PdfJobService {
+
+    /**
+     * Soumet la génération d'un PDF ; lève TooManyRequestsException si la file est pleine
+     */
+    PdfJobDTO soumettre(PdfJobRequest request);
+
+    /**
+     * Récupère l'état d'un travail
+     */
+    PdfJobDTO getStatut(String jobId);
+
+    /**
+     * Récupère le PDF d'un travail terminé
+     */
+    PdfFichier getResultat(String jobId);
+}
@@ -1,7 +1,9 @@
 package com.monentreprise.gestiondevisfactures.service;
 
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
 import com.monentreprise.gestiondevisfactures.entity.Devis;
 import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.repository.projection.DocumentVersionProjection;
 
 /**
  * Interface du service de génération PDF
@@ -17,4 +19,19 @@ public interface PdfService {
      * Génère le PDF d'une facture
      */
     byte[] genererPdfFacture(Long factureId);
+
+    /**
+     * Retourne le PDF d'un devis depuis le cache (généré si sa version n'y est pas)
+     */
+    PdfFichier getPdfDevis(Long devisId);
+
+    /**
+     * Retourne le PDF d'une facture depuis le cache (généré si sa version n'y est pas)
+     */
+    PdfFichier getPdfFacture(Long factureId);
+
+    /**
+     * Retourne le PDF d'une facture dont la version est déjà connue (export en lot)
+     */
+    PdfFichier getPdfFacture(DocumentVersionProjection facture);
 }
@@ -1,8 +1,10 @@
 package com.monentreprise.gestiondevisfactures.service;
 
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.dto.ProduitDTO;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface du service de gestion des produits
@@ -14,6 +16,11 @@ public interface ProduitService {
      */
     List<ProduitDTO> findAll();
 
+    /**
+     * Récupère une page de produits à partir d'un curseur (pagination keyset)
+     */
+    CursorPageDTO<ProduitDTO> findPage(String cursor, int size);
+
     /**
      * Récupère les produits actifs
      */
@@ -40,17 +47,19 @@ public interface ProduitService {
     void delete(Long id);
 
     /**
-     * Recherche des produits par nom et/ou catégorie
+     * Recherche des produits par nom et/ou catégorie, les plus pertinents d'abord
+     *
+     * @param limite nombre maximal de résultats (null = valeur par défaut)
      */
-    List<ProduitDTO> search(String nom, String categorie);
+    List<ProduitDTO> search(String nom, String categorie, Integer limite);
 
     /**
-     * Récupère toutes les catégories
+     * Met à jour le stock d'un produit
      */
-    List<String> findAllCategories();
+    void updateStock(Long id, int quantite);
 
     /**
-     * Met à jour le stock d'un produit
+     * Décrémente de façon atomique le stock de plusieurs produits (tout ou rien)
      */
-    void updateStock(Long id, int quantite);
+    void decrementerStocks(Map<Long, Integer> quantitesParProduit);
 }
@@ -0,0 +1,45 @@
+package com.monentreprise.gestiondevisfactures.service;
+
+import com.monentreprise.gestiondevisfactures.dto.CacheStatsDTO;
+import com.monentreprise.gestiondevisfactures.entity.Client;
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Interface du service de lecture en cache des données de référence (produits et clients)
+ */
+public interface ReferentielService {
+
+    /**
+     * Retourne les produits demandés indexés par id (copies détachées, à ne pas modifier) :
+     * ceux absents du cache sont chargés en une seule requête IN ; lève ResourceNotFoundException
+     * listant tous les ids inconnus
+     */
+    Map<Long, Produit> getProduits(Collection<Long> ids);
+
+    /**
+     * Retourne en une fois les produits référencés par des lignes de document (carte vide si
+     * aucune ligne), pour échouer avant toute écriture en listant tous les produits inconnus
+     */
+    <L> Map<Long, Produit> getProduits(Collection<L> lignes, Function<L, Long> produitId);
+
+    /**
+     * Retourne le client (copie détachée sans ses devis/factures, à ne pas modifier)
+     * ou lève ResourceNotFoundException
+     */
+    Client getClient(Long id);
+
+    /**
+     * Retire des produits du cache après une modification en masse (décrément de stocks)
+     */
+    void invaliderProduits(Collection<Long> ids);
+
+    /**
+     * Compteurs des caches de référence
+     */
+    List<CacheStatsDTO> getStatistiques();
+}
@@ -0,0 +1,256 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.config.RechercheProperties;
+import com.monentreprise.gestiondevisfactures.dto.SuggestionProduitDTO;
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+import com.monentreprise.gestiondevisfactures.repository.ProduitRepository;
+import com.monentreprise.gestiondevisfactures.service.AutocompletionService;
+import com.monentreprise.gestiondevisfactures.util.IndexPrefixes;
+import com.monentreprise.gestiondevisfactures.util.RechercheUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Implémentation de l'index d'autocomplétion des produits.
+ * Les noms repliés (minuscules, sans accents) sont rangés dans deux index de préfixes :
+ * le nom entier, et chaque fin de nom commençant à un mot suivant (« portable hp » pour
+ * « Ordinateur portable HP »). Les modifications sont appliquées à la validation de leur
+ * transaction ; l'index reflète donc les écritures de cette instance uniquement.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AutocompletionServiceImpl implements AutocompletionService {
+
+    private final ProduitRepository produitRepository;
+    private final RechercheProperties rechercheProperties;
+
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+    private IndexPrefixes debutsNoms = new IndexPrefixes();
+    private IndexPrefixes motsNoms = new IndexPrefixes();
+    private Map<Long, ProduitIndexe> produits = new HashMap<>();
+    private Map<String, Integer> comptesCategories = new HashMap<>();
+    private volatile List<Categorie> categories = List.of();
+    private volatile boolean construit;
+
+    @Override
+    public List<SuggestionProduitDTO> suggererProduits(String prefixe, Integer limite) {
+        int n = rechercheProperties.resolveLimite(limite);
+        String cle = RechercheUtils.replier(prefixe);
+        if (cle.isEmpty()) {
+            return List.of();
+        }
+        assurerConstruit();
+
+        List<SuggestionProduitDTO> suggestions = new ArrayList<>(n);
+        Set<Long> vus = new HashSet<>();
+        verrou.readLock().lock();
+        try {
+            LongPredicate collecter = id -> {
+                if (vus.add(id)) {
+                    suggestions.add(produits.get(id).toSuggestion());
+                }
+                return suggestions.size() < n;
+            };
+            debutsNoms.parcourir(cle, collecter);
+            if (suggestions.size() < n) {
+                motsNoms.parcourir(cle, collecter);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    @Override
+    public List<String> suggererCategories(String prefixe) {
+        assurerConstruit();
+        String cle = RechercheUtils.replier(prefixe);
+        return categories.stream()
+                .filter(categorie -> categorie.cle().startsWith(cle))
+                .map(Categorie::libelle)
+                .toList();
+    }
+
+    @Override
+    public void enregistrer(Produit produit) {
+        ProduitIndexe indexe = ProduitIndexe.de(produit.getId(), produit.getNom(), produit.getCategorie(),
+                produit.getPrixUnitaireHT(), produit.getActif());
+        apresValidation(() -> modifier(() -> {
+            supprimer(indexe.id());
+            ajouter(indexe);
+        }));
+    }
+
+    @Override
+    public void retirer(Long id) {
+        apresValidation(() -> modifier(() -> supprimer(id)));
+    }
+
+    /**
+     * Construit l'index au démarrage plutôt qu'à la première saisie
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void reconstruire() {
+        long debut = System.nanoTime();
+        int nombreProduits;
+        verrou.writeLock().lock();
+        try {
+            Map<Long, ProduitIndexe> charges = new HashMap<>();
+            Map<String, Integer> comptes = new HashMap<>();
+            List<IndexPrefixes.Couple> debuts = new ArrayList<>();
+            List<IndexPrefixes.Couple> mots = new ArrayList<>();
+            for (Object[] ligne : produitRepository.findChampsAutocompletion()) {
+                ProduitIndexe indexe = ProduitIndexe.de((Long) ligne[0], (String) ligne[1], (String) ligne[2],
+                        (BigDecimal) ligne[3], (Boolean) ligne[4]);
+                charges.put(indexe.id(), indexe);
+                if (indexe.categorie() != null) {
+                    comptes.merge(indexe.categorie(), 1, Integer::sum);
+                }
+                if (indexe.actif()) {
+                    debuts.add(new IndexPrefixes.Couple(indexe.cleNom(), indexe.id()));
+                    indexe.finsDeNom().forEach(fin -> mots.add(new IndexPrefixes.Couple(fin, indexe.id())));
+                }
+            }
+            produits = charges;
+            comptesCategories = comptes;
+            debutsNoms = IndexPrefixes.construire(debuts);
+            motsNoms = IndexPrefixes.construire(mots);
+            publierCategories();
+            construit = true;
+            nombreProduits = charges.size();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("Index d'autocomplétion construit : {} produits, {} catégories en {} ms",
+                nombreProduits, categories.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    @Override
+    public void reconstruireApresValidation() {
+        apresValidation(this::reconstruire);
+    }
+
+    private void assurerConstruit() {
+        if (!construit) {
+            synchronized (this) {
+                if (!construit) {
+                    reconstruire();
+                }
+            }
+        }
+    }
+
+    /**
+     * Applique une modification sous verrou d'écriture ; ignorée tant que l'index n'est pas
+     * construit (la construction lira la base, modification comprise)
+     */
+    private void modifier(Runnable modification) {
+        verrou.writeLock().lock();
+        try {
+            if (construit) {
+                modification.run();
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void ajouter(ProduitIndexe indexe) {
+        produits.put(indexe.id(), indexe);
+        if (indexe.actif()) {
+            debutsNoms.ajouter(indexe.cleNom(), indexe.id());
+            indexe.finsDeNom().forEach(fin -> motsNoms.ajouter(fin, indexe.id()));
+        }
+        if (indexe.categorie() != null && comptesCategories.merge(indexe.categorie(), 1, Integer::sum) == 1) {
+            publierCategories();
+        }
+    }
+
+    private void supprimer(Long id) {
+        ProduitIndexe ancien = produits.remove(id);
+        if (ancien == null) {
+            return;
+        }
+        if (ancien.actif()) {
+            debutsNoms.retirer(ancien.cleNom(), ancien.id());
+            ancien.finsDeNom().forEach(fin -> motsNoms.retirer(fin, ancien.id()));
+        }
+        if (ancien.categorie() != null
+                && comptesCategories.computeIfPresent(ancien.categorie(), (c, compte) -> compte > 1 ? compte - 1 : null) == null) {
+            publierCategories();
+        }
+    }
+
+    /**
+     * Recalcule la liste triée des catégories, lue sans verrou
+     */
+    private void publierCategories() {
+        categories = comptesCategories.keySet().stream()
+                .map(libelle -> new Categorie(RechercheUtils.replier(libelle), libelle))
+                .sorted(Comparator.comparing(Categorie::cle).thenComparing(Categorie::libelle))
+                .toList();
+    }
+
+    /**
+     * Exécute l'action après la validation de la transaction en cours (un rollback l'annule),
+     * ou tout de suite hors transaction
+     */
+    private static void apresValidation(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record ProduitIndexe(Long id, String nom, String categorie, BigDecimal prixUnitaireHT,
+                                 boolean actif, String cleNom) {
+
+        static ProduitIndexe de(Long id, String nom, String categorie, BigDecimal prixUnitaireHT, Boolean actif) {
+            return new ProduitIndexe(id, nom, categorie, prixUnitaireHT, Boolean.TRUE.equals(actif),
+                    RechercheUtils.replier(nom));
+        }
+
+        /**
+         * Fins du nom replié commençant à chaque mot après le premier
+         */
+        List<String> finsDeNom() {
+            List<String> fins = new ArrayList<>();
+            for (int i = cleNom.indexOf(' '); i >= 0; i = cleNom.indexOf(' ', i + 1)) {
+                fins.add(cleNom.substring(i + 1));
+            }
+            return fins;
+        }
+
+        SuggestionProduitDTO toSuggestion() {
+            return new SuggestionProduitDTO(id, nom, categorie, prixUnitaireHT);
+        }
+    }
+
+    private record Categorie(String cle, String libelle) {
+    }
+}
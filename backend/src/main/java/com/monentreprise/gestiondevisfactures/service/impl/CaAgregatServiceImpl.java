@@ -0,0 +1,108 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.entity.CaAgregat;
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.repository.CaAgregatRepository;
+import com.monentreprise.gestiondevisfactures.repository.FactureRepository;
+import com.monentreprise.gestiondevisfactures.service.CaAgregatService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Implémentation de la maintenance des cumuls de CA.
+ * Chaque facture payée compte dans les cumuls MOIS, ANNEE et TOTAL tous clients,
+ * et dans le cumul TOTAL de son client. Les variations sont appliquées par UPSERT dans
+ * la transaction de la facture : un rollback annule aussi la mise à jour des cumuls.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CaAgregatServiceImpl implements CaAgregatService {
+
+    private final CaAgregatRepository caAgregatRepository;
+    private final FactureRepository factureRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enregistrerChangementStatut(Facture facture, Facture.StatutFacture ancienStatut) {
+        boolean etaitPayee = ancienStatut == Facture.StatutFacture.PAYEE;
+        boolean estPayee = facture.getStatut() == Facture.StatutFacture.PAYEE;
+        if (etaitPayee != estPayee) {
+            appliquer(facture, estPayee ? 1 : -1);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enregistrerSuppression(Facture facture) {
+        if (facture.getStatut() == Facture.StatutFacture.PAYEE) {
+            appliquer(facture, -1);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int reconstruire() {
+        // Verrou posé avant de lire les factures : une facture payée pendant la reconstruction attend
+        // qu'elle soit validée pour appliquer son UPSERT, et ne peut ni être perdue ni doubler une ligne
+        caAgregatRepository.verrouiller();
+        Map<String, CaAgregat> cumuls = new LinkedHashMap<>();
+        for (Object[] ligne : factureRepository.sumPayeesParJourEtClient()) {
+            LocalDate jour = (LocalDate) ligne[0];
+            Long clientId = (Long) ligne[1];
+            BigDecimal montant = (BigDecimal) ligne[2];
+            long nombre = (Long) ligne[3];
+
+            for (CaAgregat.Granularite granularite : CaAgregat.Granularite.values()) {
+                cumuler(cumuls, granularite, granularite.debut(jour), CaAgregat.TOUS_CLIENTS, montant, nombre);
+            }
+            cumuler(cumuls, CaAgregat.Granularite.TOTAL, CaAgregat.PERIODE_TOTAL, clientId, montant, nombre);
+        }
+
+        caAgregatRepository.deleteAllInBatch();
+        caAgregatRepository.saveAll(cumuls.values());
+        log.info("Cumuls de CA reconstruits : {} lignes", cumuls.size());
+        return cumuls.size();
+    }
+
+    /**
+     * Premier démarrage : remplit la table à partir des factures déjà payées
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialiser() {
+        if (caAgregatRepository.count() == 0 && factureRepository.existsByStatut(Facture.StatutFacture.PAYEE)) {
+            reconstruire();
+        }
+    }
+
+    private void appliquer(Facture facture, int signe) {
+        LocalDate jour = facture.getDateFacture().toLocalDate();
+        BigDecimal montant = facture.getMontantTTC().multiply(BigDecimal.valueOf(signe));
+
+        for (CaAgregat.Granularite granularite : CaAgregat.Granularite.values()) {
+            caAgregatRepository.ajouter(granularite.name(), granularite.debut(jour),
+                    CaAgregat.TOUS_CLIENTS, montant, signe);
+        }
+        caAgregatRepository.ajouter(CaAgregat.Granularite.TOTAL.name(), CaAgregat.PERIODE_TOTAL,
+                facture.getClient().getId(), montant, signe);
+    }
+
+    private static void cumuler(Map<String, CaAgregat> cumuls, CaAgregat.Granularite granularite,
+                                LocalDate periode, Long clientId, BigDecimal montant, long nombre) {
+        CaAgregat cumul = cumuls.computeIfAbsent(granularite + "|" + periode + "|" + clientId,
+                cle -> new CaAgregat(null, granularite, periode, clientId, BigDecimal.ZERO, 0L));
+        cumul.setMontant(cumul.getMontant().add(montant));
+        cumul.setNombreFactures(cumul.getNombreFactures() + nombre);
+    }
+}
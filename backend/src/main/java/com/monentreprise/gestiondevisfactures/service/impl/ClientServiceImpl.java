@@ -1,16 +1,26 @@
 package com.monentreprise.gestiondevisfactures.service.impl;
 
+import com.monentreprise.gestiondevisfactures.config.CacheConfig;
+import com.monentreprise.gestiondevisfactures.config.RechercheInitializer;
+import com.monentreprise.gestiondevisfactures.config.RechercheProperties;
 import com.monentreprise.gestiondevisfactures.dto.ClientDTO;
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.entity.Client;
 import com.monentreprise.gestiondevisfactures.exception.BusinessException;
 import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
 import com.monentreprise.gestiondevisfactures.mapper.ClientMapper;
 import com.monentreprise.gestiondevisfactures.repository.ClientRepository;
 import com.monentreprise.gestiondevisfactures.service.ClientService;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
+import com.monentreprise.gestiondevisfactures.util.CursorUtils;
+import com.monentreprise.gestiondevisfactures.util.RechercheUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +34,9 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
     private final ClientMapper clientMapper;
+    private final RechercheProperties rechercheProperties;
+    private final RechercheInitializer rechercheInitializer;
+    private final PdfCacheService pdfCacheService;
 
     @Override
     @Transactional(readOnly = true)
@@ -33,6 +46,15 @@ public class ClientServiceImpl implements ClientService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ClientDTO> findPage(String cursor, int size) {
+        Long dernierId = (cursor == null || cursor.isBlank()) ? 0L : CursorUtils.decodeId(cursor);
+        List<Client> clients = clientRepository.findByIdGreaterThanOrderByIdAsc(dernierId, PageRequest.of(0, size + 1));
+        return CursorPageDTO.fromRows(clients, size, clientMapper::toDTO,
+                c -> CursorUtils.encodeId(c.getId()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ClientDTO> findAllActifs() {
@@ -63,6 +85,7 @@ public class ClientServiceImpl implements ClientService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CLIENTS, key = "#id")
     public ClientDTO update(Long id, ClientDTO clientDTO) {
         Client client = clientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Client", "id", id));
@@ -73,12 +96,18 @@ public class ClientServiceImpl implements ClientService {
             throw new BusinessException("Un client avec cet email existe déjà : " + clientDTO.getEmail());
         }
 
+        List<Object> imprimesAvant = champsImprimes(client);
         clientMapper.updateEntityFromDTO(clientDTO, client);
         Client updatedClient = clientRepository.save(client);
+        if (!imprimesAvant.equals(champsImprimes(updatedClient))) {
+            // Les PDF en cache des devis et factures du client portent ses anciennes coordonnées
+            pdfCacheService.invaliderToutApresValidation();
+        }
         return clientMapper.toDTO(updatedClient);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CLIENTS, key = "#id")
     public void delete(Long id) {
         Client client = clientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Client", "id", id));
@@ -96,17 +125,28 @@ public class ClientServiceImpl implements ClientService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ClientDTO> searchByNom(String nom) {
-        return clientRepository.findByNomContainingIgnoreCase(nom).stream()
+    public List<ClientDTO> search(String search, Integer limite) {
+        int n = rechercheProperties.resolveLimite(limite);
+        String terme = RechercheUtils.normaliser(search);
+        List<Client> clients;
+        if (terme == null) {
+            clients = clientRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, n));
+        } else if (terme.length() < rechercheProperties.getLongueurMinTrigrammes()) {
+            clients = clientRepository.searchByPrefixe(RechercheUtils.commencePar(terme), PageRequest.of(0, n));
+        } else if (rechercheInitializer.isTrigrammes()) {
+            clients = clientRepository.searchByTrigrammes(terme, RechercheUtils.contient(terme), n);
+        } else {
+            clients = clientRepository.searchByNomOrEmail(RechercheUtils.contient(terme), PageRequest.of(0, n));
+        }
+        return clients.stream()
                 .map(clientMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<ClientDTO> search(String search) {
-        return clientRepository.searchByNomOrEmail(search).stream()
-                .map(clientMapper::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Champs du client repris dans les PDF des devis et factures
+     */
+    private static List<Object> champsImprimes(Client client) {
+        return Arrays.asList(client.getNom(), client.getEmail(), client.getTelephone(), client.getAdresse());
     }
 }
@@ -1,27 +1,36 @@
 package com.monentreprise.gestiondevisfactures.service.impl;
 
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.dto.DevisDTO;
 import com.monentreprise.gestiondevisfactures.dto.DevisDetailDTO;
+import com.monentreprise.gestiondevisfactures.dto.DevisSummary;
 import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
 import com.monentreprise.gestiondevisfactures.entity.*;
 import com.monentreprise.gestiondevisfactures.exception.BusinessException;
 import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
 import com.monentreprise.gestiondevisfactures.mapper.DevisMapper;
-import com.monentreprise.gestiondevisfactures.repository.ClientRepository;
 import com.monentreprise.gestiondevisfactures.repository.DevisRepository;
-import com.monentreprise.gestiondevisfactures.repository.ProduitRepository;
 import com.monentreprise.gestiondevisfactures.service.DevisService;
 import com.monentreprise.gestiondevisfactures.service.FactureService;
+import com.monentreprise.gestiondevisfactures.service.NumerotationService;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
 import com.monentreprise.gestiondevisfactures.service.ProduitService;
+import com.monentreprise.gestiondevisfactures.service.ReferentielService;
+import com.monentreprise.gestiondevisfactures.util.CursorUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.Year;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -32,24 +41,27 @@ import java.util.stream.Collectors;
 public class DevisServiceImpl implements DevisService {
 
     private final DevisRepository devisRepository;
-    private final ClientRepository clientRepository;
-    private final ProduitRepository produitRepository;
+    private final ReferentielService referentielService;
     private final DevisMapper devisMapper;
     private final FactureService factureService;
     private final ProduitService produitService;
+    private final NumerotationService numerotationService;
+    private final PdfCacheService pdfCacheService;
 
     public DevisServiceImpl(DevisRepository devisRepository, 
-                           ClientRepository clientRepository,
-                           ProduitRepository produitRepository, 
+                           ReferentielService referentielService,
                            DevisMapper devisMapper,
                            @Lazy FactureService factureService,
-                           ProduitService produitService) {
+                           ProduitService produitService,
+                           NumerotationService numerotationService,
+                           PdfCacheService pdfCacheService) {
         this.devisRepository = devisRepository;
-        this.clientRepository = clientRepository;
-        this.produitRepository = produitRepository;
+        this.referentielService = referentielService;
         this.devisMapper = devisMapper;
         this.factureService = factureService;
         this.produitService = produitService;
+        this.numerotationService = numerotationService;
+        this.pdfCacheService = pdfCacheService;
     }
 
     @Override
@@ -60,6 +72,42 @@ public class DevisServiceImpl implements DevisService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<DevisDTO> findPage(String cursor, int size) {
+        Pageable limite = PageRequest.of(0, size + 1);
+        List<Devis> devis;
+        if (cursor == null || cursor.isBlank()) {
+            devis = devisRepository.findFirstPage(limite);
+        } else {
+            CursorUtils.DateIdCursor position = CursorUtils.decodeDateId(cursor);
+            devis = devisRepository.findPageAfter(position.date(), position.id(), limite);
+        }
+        return CursorPageDTO.fromRows(devis, size, devisMapper::toDTO,
+                d -> CursorUtils.encodeDateId(d.getDateDevis(), d.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DevisSummary> findAllSummaries() {
+        return devisRepository.findSummaryFirstPage(Pageable.unpaged());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<DevisSummary> findSummaryPage(String cursor, int size) {
+        Pageable limite = PageRequest.of(0, size + 1);
+        List<DevisSummary> resumes;
+        if (cursor == null || cursor.isBlank()) {
+            resumes = devisRepository.findSummaryFirstPage(limite);
+        } else {
+            CursorUtils.DateIdCursor position = CursorUtils.decodeDateId(cursor);
+            resumes = devisRepository.findSummaryPageAfter(position.date(), position.id(), limite);
+        }
+        return CursorPageDTO.fromRows(resumes, size, Function.identity(),
+                d -> CursorUtils.encodeDateId(d.dateDevis(), d.id()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public DevisDTO findById(Long id) {
@@ -85,10 +133,11 @@ public class DevisServiceImpl implements DevisService {
     }
 
     @Override
+    @Timed(value = "devis.creation", description = "Création d'un devis", histogram = true)
     public DevisDTO create(DevisDTO devisDTO) {
         // Récupérer le client
-        Client client = clientRepository.findById(devisDTO.getClientId())
-                .orElseThrow(() -> new ResourceNotFoundException("Client", "id", devisDTO.getClientId()));
+        Client client = referentielService.getClient(devisDTO.getClientId());
+        Map<Long, Produit> produits = referentielService.getProduits(devisDTO.getLignes(), DevisDetailDTO::getProduitId);
 
         // Créer le devis
         Devis devis = new Devis();
@@ -101,7 +150,7 @@ public class DevisServiceImpl implements DevisService {
         // Ajouter les lignes
         if (devisDTO.getLignes() != null) {
             for (DevisDetailDTO ligneDTO : devisDTO.getLignes()) {
-                DevisDetail ligne = creerLigneDevis(ligneDTO);
+                DevisDetail ligne = creerLigneDevis(ligneDTO, produits);
                 devis.addLigne(ligne);
             }
         }
@@ -125,18 +174,18 @@ public class DevisServiceImpl implements DevisService {
 
         // Mettre à jour le client si changé
         if (devisDTO.getClientId() != null && !devisDTO.getClientId().equals(devis.getClient().getId())) {
-            Client client = clientRepository.findById(devisDTO.getClientId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Client", "id", devisDTO.getClientId()));
+            Client client = referentielService.getClient(devisDTO.getClientId());
             devis.setClient(client);
         }
 
         devis.setCommentaire(devisDTO.getCommentaire());
 
         // Remplacer les lignes
+        Map<Long, Produit> produits = referentielService.getProduits(devisDTO.getLignes(), DevisDetailDTO::getProduitId);
         devis.getLignes().clear();
         if (devisDTO.getLignes() != null) {
             for (DevisDetailDTO ligneDTO : devisDTO.getLignes()) {
-                DevisDetail ligne = creerLigneDevis(ligneDTO);
+                DevisDetail ligne = creerLigneDevis(ligneDTO, produits);
                 devis.addLigne(ligne);
             }
         }
@@ -144,6 +193,10 @@ public class DevisServiceImpl implements DevisService {
         // Recalculer les totaux
         devis.recalculerTotaux();
 
+        // Nouvelle version même si seules les lignes ont changé
+        devis.setDateModification(LocalDateTime.now());
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.DEVIS, id);
+
         Devis updatedDevis = devisRepository.save(devis);
         return devisMapper.toDTO(updatedDevis);
     }
@@ -158,6 +211,7 @@ public class DevisServiceImpl implements DevisService {
         }
 
         devisRepository.delete(devis);
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.DEVIS, id);
     }
 
     @Override
@@ -170,6 +224,7 @@ public class DevisServiceImpl implements DevisService {
         }
 
         devis.setStatut(Devis.StatutDevis.VALIDE);
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.DEVIS, id);
         Devis validatedDevis = devisRepository.save(devis);
         return devisMapper.toDTO(validatedDevis);
     }
@@ -184,11 +239,13 @@ public class DevisServiceImpl implements DevisService {
         }
 
         devis.setStatut(Devis.StatutDevis.ANNULE);
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.DEVIS, id);
         Devis cancelledDevis = devisRepository.save(devis);
         return devisMapper.toDTO(cancelledDevis);
     }
 
     @Override
+    @Timed(value = "devis.conversion", description = "Conversion d'un devis en facture", histogram = true)
     public FactureDTO convertirEnFacture(Long devisId) {
         Devis devis = devisRepository.findByIdWithLignes(devisId)
                 .orElseThrow(() -> new ResourceNotFoundException("Devis", "id", devisId));
@@ -197,14 +254,12 @@ public class DevisServiceImpl implements DevisService {
             throw new BusinessException("Seul un devis validé peut être converti en facture. Statut actuel : " + devis.getStatut());
         }
 
-        // Vérifier les stocks
+        // Décrémenter les stocks (mise à jour conditionnelle, échoue si un stock est insuffisant)
+        Map<Long, Integer> quantitesParProduit = new LinkedHashMap<>();
         for (DevisDetail ligne : devis.getLignes()) {
-            Produit produit = ligne.getProduit();
-            if (produit.getStock() < ligne.getQuantite()) {
-                throw new BusinessException("Stock insuffisant pour le produit : " + produit.getNom() +
-                        ". Stock disponible : " + produit.getStock() + ", quantité demandée : " + ligne.getQuantite());
-            }
+            quantitesParProduit.merge(ligne.getProduit().getId(), ligne.getQuantite(), Integer::sum);
         }
+        produitService.decrementerStocks(quantitesParProduit);
 
         // Créer la facture
         FactureDTO factureDTO = new FactureDTO();
@@ -225,31 +280,24 @@ public class DevisServiceImpl implements DevisService {
         // Créer la facture
         FactureDTO createdFacture = factureService.create(factureDTO);
 
-        // Décrémenter les stocks
-        for (DevisDetail ligne : devis.getLignes()) {
-            produitService.updateStock(ligne.getProduit().getId(), ligne.getQuantite());
-        }
-
         // Mettre à jour le statut du devis
         devis.setStatut(Devis.StatutDevis.TRANSFORME_EN_FACTURE);
         devisRepository.save(devis);
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.DEVIS, devisId);
 
         return createdFacture;
     }
 
     @Override
     public String genererNumeroDevis() {
-        int annee = Year.now().getValue();
-        Long count = devisRepository.countByAnnee(annee);
-        return String.format("DEV-%d-%04d", annee, count + 1);
+        return numerotationService.prochainNumero(CompteurNumerotation.TypeDocument.DEVIS);
     }
 
     /**
      * Crée une ligne de devis à partir d'un DTO
      */
-    private DevisDetail creerLigneDevis(DevisDetailDTO ligneDTO) {
-        Produit produit = produitRepository.findById(ligneDTO.getProduitId())
-                .orElseThrow(() -> new ResourceNotFoundException("Produit", "id", ligneDTO.getProduitId()));
+    private DevisDetail creerLigneDevis(DevisDetailDTO ligneDTO, Map<Long, Produit> produits) {
+        Produit produit = produits.get(ligneDTO.getProduitId());
 
         DevisDetail ligne = new DevisDetail();
         ligne.setProduit(produit);
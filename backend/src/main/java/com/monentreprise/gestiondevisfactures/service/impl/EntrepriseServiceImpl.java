@@ -1,32 +1,74 @@
 package com.monentreprise.gestiondevisfactures.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.monentreprise.gestiondevisfactures.dto.EntrepriseDTO;
+import com.monentreprise.gestiondevisfactures.dto.LogoEntreprise;
+import com.monentreprise.gestiondevisfactures.dto.ProfilEntreprise;
 import com.monentreprise.gestiondevisfactures.entity.Entreprise;
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
 import com.monentreprise.gestiondevisfactures.mapper.EntrepriseMapper;
 import com.monentreprise.gestiondevisfactures.repository.EntrepriseRepository;
 import com.monentreprise.gestiondevisfactures.service.EntrepriseService;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * Implémentation du service de gestion des informations de l'entreprise
+ * Implémentation du service de gestion des informations de l'entreprise.
+ * L'entreprise est un singleton lu à chaque chargement de page : elle est gardée
+ * en mémoire et remplacée après la validation de chaque enregistrement.
  */
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class EntrepriseServiceImpl implements EntrepriseService {
 
+    /**
+     * Taille maximale du logo décodé
+     */
+    private static final int LOGO_TAILLE_MAX = 512 * 1024;
+
+    private static final Pattern DATA_URL_LOGO = Pattern.compile("data:(image/(?:png|jpeg|jpg|gif));base64,(.+)", Pattern.DOTALL);
+
     private final EntrepriseRepository entrepriseRepository;
     private final EntrepriseMapper entrepriseMapper;
+    private final ObjectMapper objectMapper;
+    private final PdfCacheService pdfCacheService;
+
+    private final AtomicReference<ProfilEntreprise> profil = new AtomicReference<>();
 
     @Override
     @Transactional(readOnly = true)
     public EntrepriseDTO getEntreprise() {
-        Optional<Entreprise> entreprise = entrepriseRepository.findFirstByOrderByIdAsc();
-        return entreprise.map(entrepriseMapper::toDTO).orElse(new EntrepriseDTO());
+        return getProfil().entreprise();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProfilEntreprise getProfil() {
+        ProfilEntreprise courant = profil.get();
+        if (courant != null) {
+            return courant;
+        }
+
+        ProfilEntreprise charge = entrepriseRepository.findFirstByOrderByIdAsc()
+                .map(this::creerProfil)
+                .orElseGet(() -> creerProfil(new EntrepriseDTO(), null));
+        // Un enregistrement validé entre-temps a priorité sur cette lecture
+        return profil.compareAndSet(null, charge) ? charge : profil.get();
     }
 
     @Override
@@ -42,8 +84,91 @@ public class EntrepriseServiceImpl implements EntrepriseService {
             // Création d'une nouvelle entreprise
             entreprise = entrepriseMapper.toEntity(entrepriseDTO);
         }
+
+        if (entrepriseDTO.getLogo() != null) {
+            appliquerLogo(entreprise, entrepriseDTO.getLogo());
+        }
         
         Entreprise savedEntreprise = entrepriseRepository.save(entreprise);
-        return entrepriseMapper.toDTO(savedEntreprise);
+        ProfilEntreprise nouveau = creerProfil(savedEntreprise);
+        remplacerApresValidation(nouveau);
+        return nouveau.entreprise();
+    }
+
+    /**
+     * Décode le logo reçu en data URL ; une chaîne vide retire le logo
+     */
+    private void appliquerLogo(Entreprise entreprise, String dataUrl) {
+        if (dataUrl.isBlank()) {
+            entreprise.setLogoContenu(null);
+            entreprise.setLogoType(null);
+            entreprise.setLogoEmpreinte(null);
+            return;
+        }
+
+        Matcher matcher = DATA_URL_LOGO.matcher(dataUrl);
+        if (!matcher.matches()) {
+            throw new BusinessException("Logo invalide : image PNG, JPEG ou GIF encodée en data URL base64 attendue");
+        }
+        byte[] contenu;
+        try {
+            contenu = Base64.getMimeDecoder().decode(matcher.group(2));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Logo invalide : encodage base64 incorrect");
+        }
+        if (contenu.length == 0 || contenu.length > LOGO_TAILLE_MAX) {
+            throw new BusinessException("Le logo ne doit pas dépasser " + LOGO_TAILLE_MAX / 1024 + " Ko");
+        }
+
+        entreprise.setLogoContenu(contenu);
+        entreprise.setLogoType(matcher.group(1).equals("image/jpg") ? "image/jpeg" : matcher.group(1));
+        entreprise.setLogoEmpreinte(sha256(contenu));
+    }
+
+    /**
+     * Vide le cache tout de suite, puis y place la nouvelle version une fois la transaction validée
+     * (un rollback laisse le cache vide, rechargé depuis la base à la lecture suivante)
+     */
+    private void remplacerApresValidation(ProfilEntreprise nouveau) {
+        profil.set(null);
+        Runnable publier = () -> {
+            profil.set(nouveau);
+            // Les PDF en cache embarquent l'ancien en-tête (nom, coordonnées, logo)
+            pdfCacheService.invaliderTout();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publier.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publier.run();
+            }
+        });
+    }
+
+    private ProfilEntreprise creerProfil(Entreprise entreprise) {
+        LogoEntreprise logo = entreprise.getLogoContenu() != null
+                ? new LogoEntreprise(entreprise.getLogoContenu(), entreprise.getLogoType(), entreprise.getLogoEmpreinte())
+                : null;
+        return creerProfil(entrepriseMapper.toDTO(entreprise), logo);
+    }
+
+    private ProfilEntreprise creerProfil(EntrepriseDTO entreprise, LogoEntreprise logo) {
+        try {
+            String etag = "\"" + sha256(objectMapper.writeValueAsBytes(entreprise)) + "\"";
+            return new ProfilEntreprise(entreprise, etag, logo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Impossible de calculer la version de l'entreprise", e);
+        }
+    }
+
+    private static String sha256(byte[] contenu) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenu));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
     }
 }
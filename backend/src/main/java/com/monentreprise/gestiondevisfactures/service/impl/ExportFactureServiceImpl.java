@@ -0,0 +1,199 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.monentreprise.gestiondevisfactures.dto.FactureDetailExportLigne;
+import com.monentreprise.gestiondevisfactures.dto.FactureExportLigne;
+import com.monentreprise.gestiondevisfactures.dto.FiltreExportFactures;
+import com.monentreprise.gestiondevisfactures.dto.FormatExport;
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+import com.monentreprise.gestiondevisfactures.repository.FactureExportRepository;
+import com.monentreprise.gestiondevisfactures.service.ExportFactureService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Implémentation de l'export en flux des factures.
+ * Chaque ligne lue par le curseur JDBC est écrite aussitôt : aucune entité ni liste
+ * intermédiaire, la mémoire reste constante quel que soit le nombre de factures.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportFactureServiceImpl implements ExportFactureService {
+
+    private final FactureExportRepository factureExportRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public FiltreExportFactures filtre(LocalDate debut, LocalDate fin, Facture.StatutFacture statut) {
+        if (debut != null && fin != null && fin.isBefore(debut)) {
+            throw new BusinessException("La date de fin doit être postérieure à la date de début");
+        }
+        return new FiltreExportFactures(debut, fin, statut);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void ecrireFactures(FiltreExportFactures filtre, FormatExport format, OutputStream out) throws IOException {
+        try (Ecrivain ecrivain = ecrivain(format, out, FactureExportLigne.COLONNES)) {
+            try {
+                factureExportRepository.parcourirFactures(filtre, ligne -> ecrivain.accepter(ligne, ligne.valeurs()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            log.debug("Export {} : {} factures", format, ecrivain.lignes);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void ecrireLignes(FiltreExportFactures filtre, FormatExport format, OutputStream out) throws IOException {
+        try (Ecrivain ecrivain = ecrivain(format, out, FactureDetailExportLigne.COLONNES)) {
+            try {
+                factureExportRepository.parcourirLignes(filtre, ligne -> ecrivain.accepter(ligne, ligne.valeurs()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            log.debug("Export {} : {} lignes de factures", format, ecrivain.lignes);
+        }
+    }
+
+    private Ecrivain ecrivain(FormatExport format, OutputStream out, List<String> colonnes) throws IOException {
+        return format == FormatExport.CSV ? new EcrivainCsv(out, colonnes) : new EcrivainNdjson(out, objectMapper);
+    }
+
+    /**
+     * Écrit les lignes dans le flux ; la première est envoyée immédiatement,
+     * les suivantes par blocs de tampon
+     */
+    private abstract static class Ecrivain implements AutoCloseable {
+
+        private long lignes;
+
+        /**
+         * Écrit une ligne depuis le callback JDBC : une erreur d'écriture
+         * (client déconnecté) interrompt la lecture du curseur
+         */
+        final void accepter(Object ligne, Object[] valeurs) {
+            try {
+                ecrireLigne(ligne, valeurs);
+                if (++lignes == 1) {
+                    vider();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        abstract void ecrireLigne(Object ligne, Object[] valeurs) throws IOException;
+
+        abstract void vider() throws IOException;
+
+        @Override
+        public void close() throws IOException {
+            vider();
+        }
+    }
+
+    /**
+     * Un objet JSON par ligne (application/x-ndjson)
+     */
+    private static final class EcrivainNdjson extends Ecrivain {
+
+        private final JsonGenerator generateur;
+        private final ObjectWriter writer;
+
+        EcrivainNdjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generateur = objectMapper.getFactory().createGenerator(out);
+            this.generateur.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generateur.setRootValueSeparator(null);
+            this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        void ecrireLigne(Object ligne, Object[] valeurs) throws IOException {
+            writer.writeValue(generateur, ligne);
+            generateur.writeRaw('\n');
+        }
+
+        @Override
+        void vider() throws IOException {
+            generateur.flush();
+        }
+    }
+
+    /**
+     * CSV RFC 4180 en UTF-8, ligne d'en-tête comprise
+     */
+    private static final class EcrivainCsv extends Ecrivain {
+
+        private final Writer writer;
+
+        EcrivainCsv(OutputStream out, List<String> colonnes) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            ecrireValeurs(colonnes.toArray());
+            writer.flush();
+        }
+
+        @Override
+        void ecrireLigne(Object ligne, Object[] valeurs) throws IOException {
+            ecrireValeurs(valeurs);
+        }
+
+        private void ecrireValeurs(Object[] valeurs) throws IOException {
+            for (int i = 0; i < valeurs.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                ecrireValeur(valeurs[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void ecrireValeur(Object valeur) throws IOException {
+            if (valeur == null) {
+                return;
+            }
+            String texte;
+            if (valeur instanceof BigDecimal montant) {
+                texte = montant.toPlainString();
+            } else if (valeur instanceof LocalDateTime date) {
+                texte = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(date);
+            } else {
+                texte = valeur.toString();
+            }
+            if (texte.indexOf(',') < 0 && texte.indexOf('"') < 0
+                    && texte.indexOf('\n') < 0 && texte.indexOf('\r') < 0) {
+                writer.write(texte);
+                return;
+            }
+            writer.write('"');
+            writer.write(texte.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        void vider() throws IOException {
+            writer.flush();
+        }
+    }
+}
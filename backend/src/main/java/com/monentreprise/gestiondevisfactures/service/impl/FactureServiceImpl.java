@@ -1,24 +1,33 @@
 package com.monentreprise.gestiondevisfactures.service.impl;
 
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
 import com.monentreprise.gestiondevisfactures.dto.FactureDetailDTO;
+import com.monentreprise.gestiondevisfactures.dto.FactureSummary;
 import com.monentreprise.gestiondevisfactures.entity.*;
 import com.monentreprise.gestiondevisfactures.exception.BusinessException;
 import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
 import com.monentreprise.gestiondevisfactures.mapper.FactureMapper;
-import com.monentreprise.gestiondevisfactures.repository.ClientRepository;
 import com.monentreprise.gestiondevisfactures.repository.DevisRepository;
 import com.monentreprise.gestiondevisfactures.repository.FactureRepository;
-import com.monentreprise.gestiondevisfactures.repository.ProduitRepository;
+import com.monentreprise.gestiondevisfactures.service.CaAgregatService;
 import com.monentreprise.gestiondevisfactures.service.FactureService;
+import com.monentreprise.gestiondevisfactures.service.NumerotationService;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
+import com.monentreprise.gestiondevisfactures.service.ReferentielService;
+import com.monentreprise.gestiondevisfactures.util.CursorUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.Year;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,10 +39,12 @@ import java.util.stream.Collectors;
 public class FactureServiceImpl implements FactureService {
 
     private final FactureRepository factureRepository;
-    private final ClientRepository clientRepository;
     private final DevisRepository devisRepository;
-    private final ProduitRepository produitRepository;
+    private final ReferentielService referentielService;
     private final FactureMapper factureMapper;
+    private final NumerotationService numerotationService;
+    private final PdfCacheService pdfCacheService;
+    private final CaAgregatService caAgregatService;
 
     @Override
     @Transactional(readOnly = true)
@@ -43,6 +54,42 @@ public class FactureServiceImpl implements FactureService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<FactureDTO> findPage(String cursor, int size) {
+        Pageable limite = PageRequest.of(0, size + 1);
+        List<Facture> factures;
+        if (cursor == null || cursor.isBlank()) {
+            factures = factureRepository.findFirstPage(limite);
+        } else {
+            CursorUtils.DateIdCursor position = CursorUtils.decodeDateId(cursor);
+            factures = factureRepository.findPageAfter(position.date(), position.id(), limite);
+        }
+        return CursorPageDTO.fromRows(factures, size, factureMapper::toDTO,
+                f -> CursorUtils.encodeDateId(f.getDateFacture(), f.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FactureSummary> findAllSummaries() {
+        return factureRepository.findSummaryFirstPage(Pageable.unpaged());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<FactureSummary> findSummaryPage(String cursor, int size) {
+        Pageable limite = PageRequest.of(0, size + 1);
+        List<FactureSummary> resumes;
+        if (cursor == null || cursor.isBlank()) {
+            resumes = factureRepository.findSummaryFirstPage(limite);
+        } else {
+            CursorUtils.DateIdCursor position = CursorUtils.decodeDateId(cursor);
+            resumes = factureRepository.findSummaryPageAfter(position.date(), position.id(), limite);
+        }
+        return CursorPageDTO.fromRows(resumes, size, Function.identity(),
+                f -> CursorUtils.encodeDateId(f.dateFacture(), f.id()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public FactureDTO findById(Long id) {
@@ -76,10 +123,11 @@ public class FactureServiceImpl implements FactureService {
     }
 
     @Override
+    @Timed(value = "factures.creation", description = "Création d'une facture", histogram = true)
     public FactureDTO create(FactureDTO factureDTO) {
         // Récupérer le client
-        Client client = clientRepository.findById(factureDTO.getClientId())
-                .orElseThrow(() -> new ResourceNotFoundException("Client", "id", factureDTO.getClientId()));
+        Client client = referentielService.getClient(factureDTO.getClientId());
+        Map<Long, Produit> produits = referentielService.getProduits(factureDTO.getLignes(), FactureDetailDTO::getProduitId);
 
         // Créer la facture
         Facture facture = new Facture();
@@ -99,7 +147,7 @@ public class FactureServiceImpl implements FactureService {
         // Ajouter les lignes
         if (factureDTO.getLignes() != null) {
             for (FactureDetailDTO ligneDTO : factureDTO.getLignes()) {
-                FactureDetail ligne = creerLigneFacture(ligneDTO);
+                FactureDetail ligne = creerLigneFacture(ligneDTO, produits);
                 facture.addLigne(ligne);
             }
         }
@@ -108,6 +156,7 @@ public class FactureServiceImpl implements FactureService {
         facture.recalculerTotaux();
 
         Facture savedFacture = factureRepository.save(facture);
+        caAgregatService.enregistrerChangementStatut(savedFacture, null);
         return factureMapper.toDTO(savedFacture);
     }
 
@@ -117,18 +166,22 @@ public class FactureServiceImpl implements FactureService {
                 .orElseThrow(() -> new ResourceNotFoundException("Facture", "id", id));
 
         // On ne peut modifier que le statut et le mode de paiement
+        Facture.StatutFacture ancienStatut = facture.getStatut();
         if (factureDTO.getStatut() != null) {
             facture.setStatut(factureDTO.getStatut());
         }
         if (factureDTO.getModePaiement() != null) {
             facture.setModePaiement(factureDTO.getModePaiement());
         }
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.FACTURE, id);
+        caAgregatService.enregistrerChangementStatut(facture, ancienStatut);
 
         Facture updatedFacture = factureRepository.save(facture);
         return factureMapper.toDTO(updatedFacture);
     }
 
     @Override
+    @Timed(value = "factures.paiement", description = "Passage d'une facture à l'état payée", histogram = true)
     public FactureDTO marquerPayee(Long id, Facture.ModePaiement modePaiement) {
         Facture facture = factureRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Facture", "id", id));
@@ -137,10 +190,13 @@ public class FactureServiceImpl implements FactureService {
             throw new BusinessException("Impossible de marquer une facture annulée comme payée");
         }
 
+        Facture.StatutFacture ancienStatut = facture.getStatut();
         facture.setStatut(Facture.StatutFacture.PAYEE);
         if (modePaiement != null) {
             facture.setModePaiement(modePaiement);
         }
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.FACTURE, id);
+        caAgregatService.enregistrerChangementStatut(facture, ancienStatut);
 
         Facture updatedFacture = factureRepository.save(facture);
         return factureMapper.toDTO(updatedFacture);
@@ -155,24 +211,24 @@ public class FactureServiceImpl implements FactureService {
             throw new BusinessException("Impossible d'annuler une facture déjà payée");
         }
 
+        Facture.StatutFacture ancienStatut = facture.getStatut();
         facture.setStatut(Facture.StatutFacture.ANNULEE);
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.FACTURE, id);
+        caAgregatService.enregistrerChangementStatut(facture, ancienStatut);
         Facture cancelledFacture = factureRepository.save(facture);
         return factureMapper.toDTO(cancelledFacture);
     }
 
     @Override
     public String genererNumeroFacture() {
-        int annee = Year.now().getValue();
-        Long count = factureRepository.countByAnnee(annee);
-        return String.format("FAC-%d-%04d", annee, count + 1);
+        return numerotationService.prochainNumero(CompteurNumerotation.TypeDocument.FACTURE);
     }
 
     /**
      * Crée une ligne de facture à partir d'un DTO
      */
-    private FactureDetail creerLigneFacture(FactureDetailDTO ligneDTO) {
-        Produit produit = produitRepository.findById(ligneDTO.getProduitId())
-                .orElseThrow(() -> new ResourceNotFoundException("Produit", "id", ligneDTO.getProduitId()));
+    private FactureDetail creerLigneFacture(FactureDetailDTO ligneDTO, Map<Long, Produit> produits) {
+        Produit produit = produits.get(ligneDTO.getProduitId());
 
         FactureDetail ligne = new FactureDetail();
         ligne.setProduit(produit);
@@ -191,6 +247,8 @@ public class FactureServiceImpl implements FactureService {
                 .orElseThrow(() -> new ResourceNotFoundException("Facture", "id", id));
 
         // Hard delete - suppression définitive de la base de données
+        caAgregatService.enregistrerSuppression(facture);
         factureRepository.delete(facture);
+        pdfCacheService.invalider(CompteurNumerotation.TypeDocument.FACTURE, id);
     }
 }
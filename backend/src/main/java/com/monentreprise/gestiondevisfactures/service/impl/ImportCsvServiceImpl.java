@@ -0,0 +1,374 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.config.CacheConfig;
+import com.monentreprise.gestiondevisfactures.config.ImportProperties;
+import com.monentreprise.gestiondevisfactures.dto.ClientDTO;
+import com.monentreprise.gestiondevisfactures.dto.ImportErreurDTO;
+import com.monentreprise.gestiondevisfactures.dto.ImportRapportDTO;
+import com.monentreprise.gestiondevisfactures.dto.ProduitDTO;
+import com.monentreprise.gestiondevisfactures.entity.Client;
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+import com.monentreprise.gestiondevisfactures.mapper.ClientMapper;
+import com.monentreprise.gestiondevisfactures.mapper.ProduitMapper;
+import com.monentreprise.gestiondevisfactures.repository.ClientRepository;
+import com.monentreprise.gestiondevisfactures.repository.ProduitRepository;
+import com.monentreprise.gestiondevisfactures.service.AutocompletionService;
+import com.monentreprise.gestiondevisfactures.service.ImportCsvService;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
+import com.monentreprise.gestiondevisfactures.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Implémentation de l'import CSV.
+ * Le fichier est lu ligne par ligne ; chaque ligne est convertie en DTO et validée
+ * avec les contraintes des DTO, puis les lignes valides sont écrites par lots JDBC.
+ * Les lignes invalides sont écartées et décrites dans le rapport. L'import entier
+ * tient dans une transaction : une erreur de base annule tout.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportCsvServiceImpl implements ImportCsvService {
+
+    private static final List<String> COLONNES_PRODUITS =
+            List.of("id", "nom", "description", "prixUnitaireHT", "stock", "categorie", "actif");
+    private static final List<String> COLONNES_CLIENTS =
+            List.of("nom", "email", "telephone", "adresse", "actif");
+
+    private final ProduitRepository produitRepository;
+    private final ClientRepository clientRepository;
+    private final ProduitMapper produitMapper;
+    private final ClientMapper clientMapper;
+    private final Validator validator;
+    private final ImportProperties properties;
+    private final AutocompletionService autocompletionService;
+    private final PdfCacheService pdfCacheService;
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUITS, allEntries = true)
+    public ImportRapportDTO importerProduits(InputStream csv) throws IOException {
+        ImportRapportDTO rapport = importer(csv, COLONNES_PRODUITS, List.of("nom", "prixUnitaireHT"),
+                this::lireProduit, this::ecrireProduits);
+        if (rapport.getImportees() > 0) {
+            // Une seule reconstruction pour tout le fichier plutôt qu'une insertion par produit
+            autocompletionService.reconstruireApresValidation();
+        }
+        return rapport;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CLIENTS, allEntries = true)
+    public ImportRapportDTO importerClients(InputStream csv) throws IOException {
+        Map<String, Long> emailsVus = new HashMap<>();
+        return importer(csv, COLONNES_CLIENTS, List.of("nom", "email"),
+                this::lireClient, (lot, colonnesFichier, rapport) -> ecrireClients(lot, colonnesFichier, rapport, emailsVus));
+    }
+
+    private <T> ImportRapportDTO importer(InputStream csv, List<String> colonnes, List<String> obligatoires,
+                                          Function<LigneCsv, T> lecture,
+                                          Ecriture<T> ecriture) throws IOException {
+        long debut = System.nanoTime();
+        ImportRapportDTO rapport = new ImportRapportDTO();
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            List<String> entete = reader.lire();
+            if (entete == null) {
+                throw new BusinessException("Le fichier CSV est vide");
+            }
+            Map<String, Integer> index = indexerColonnes(entete, colonnes, obligatoires);
+            Set<String> colonnesFichier = Set.copyOf(index.keySet());
+            LigneCsv ligne = new LigneCsv(index);
+            List<LigneValide<T>> lot = new ArrayList<>(properties.getBatchSize());
+
+            List<String> valeurs;
+            while ((valeurs = reader.lire()) != null) {
+                rapport.setLignesLues(rapport.getLignesLues() + 1);
+                long numero = reader.getLigne();
+
+                T dto;
+                try {
+                    dto = lecture.apply(ligne.avec(valeurs));
+                } catch (ValeurInvalideException e) {
+                    rejeter(rapport, numero, List.of(new ImportErreurDTO(numero, e.colonne, e.getMessage())));
+                    continue;
+                }
+                Set<ConstraintViolation<T>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    rejeter(rapport, numero, violations.stream()
+                            .map(v -> new ImportErreurDTO(numero, v.getPropertyPath().toString(), v.getMessage()))
+                            .toList());
+                    continue;
+                }
+
+                lot.add(new LigneValide<>(numero, dto));
+                if (lot.size() >= properties.getBatchSize()) {
+                    ecriture.ecrire(lot, colonnesFichier, rapport);
+                    lot.clear();
+                }
+            }
+            if (!lot.isEmpty()) {
+                ecriture.ecrire(lot, colonnesFichier, rapport);
+            }
+        }
+
+        if (rapport.getImportees() > 0) {
+            // Les lignes importées peuvent mettre à jour des clients ou produits repris dans les PDF en cache
+            pdfCacheService.invaliderToutApresValidation();
+        }
+        rapport.setDureeMs((System.nanoTime() - debut) / 1_000_000);
+        log.info("Import CSV : {} lignes lues, {} importées, {} rejetées en {} ms",
+                rapport.getLignesLues(), rapport.getImportees(), rapport.getRejetees(), rapport.getDureeMs());
+        return rapport;
+    }
+
+    /**
+     * Produit d'une ligne. Une création reçoit les valeurs par défaut (stock 0, actif) ;
+     * une mise à jour ne touche que les colonnes de l'en-tête, et un actif vide conserve le statut
+     */
+    private ProduitDTO lireProduit(LigneCsv ligne) {
+        ProduitDTO dto = new ProduitDTO();
+        Long id = ligne.entierLong("id");
+        dto.setId(id);
+        dto.setNom(ligne.texte("nom"));
+        dto.setDescription(ligne.texte("description"));
+        dto.setPrixUnitaireHT(ligne.decimal("prixUnitaireHT"));
+        Integer stock = ligne.entier("stock");
+        if (stock == null && id != null && ligne.presente("stock")) {
+            throw new ValeurInvalideException("stock",
+                    "Stock vide : retirer la colonne stock du fichier pour conserver le stock actuel");
+        }
+        // Sans colonne stock, la valeur n'est pas écrite pour une mise à jour
+        dto.setStock(stock != null ? stock : 0);
+        dto.setCategorie(ligne.texte("categorie"));
+        Boolean actif = ligne.booleen("actif");
+        dto.setActif(actif != null || id != null ? actif : Boolean.TRUE);
+        return dto;
+    }
+
+    /**
+     * Client d'une ligne ; un actif vide vaut true pour une création et conserve le statut d'un client existant
+     */
+    private ClientDTO lireClient(LigneCsv ligne) {
+        ClientDTO dto = new ClientDTO();
+        dto.setNom(ligne.texte("nom"));
+        dto.setEmail(ligne.texte("email"));
+        dto.setTelephone(ligne.texte("telephone"));
+        dto.setAdresse(ligne.texte("adresse"));
+        dto.setActif(ligne.booleen("actif"));
+        return dto;
+    }
+
+    private void ecrireProduits(List<LigneValide<ProduitDTO>> lot, Set<String> colonnesFichier, ImportRapportDTO rapport) {
+        List<Produit> nouveaux = new ArrayList<>();
+        List<Produit> modifies = new ArrayList<>();
+        for (LigneValide<ProduitDTO> ligne : lot) {
+            Produit produit = produitMapper.toEntity(ligne.dto());
+            if (produit.getId() == null) {
+                nouveaux.add(produit);
+            } else {
+                // Le mapper remplace un actif absent par true : null conserve ici le statut actuel
+                produit.setActif(ligne.dto().getActif());
+                modifies.add(produit);
+            }
+        }
+
+        produitRepository.insererEnLot(nouveaux);
+        Set<Long> introuvables = new HashSet<>(produitRepository.mettreAJourEnLot(modifies, colonnesFichier));
+
+        long importees = lot.size();
+        for (LigneValide<ProduitDTO> ligne : lot) {
+            Long id = ligne.dto().getId();
+            if (id != null && introuvables.contains(id)) {
+                rejeter(rapport, ligne.numero(), List.of(
+                        new ImportErreurDTO(ligne.numero(), "id", "Produit non trouvé avec id : " + id)));
+                importees--;
+            }
+        }
+        rapport.setImportees(rapport.getImportees() + importees);
+    }
+
+    private void ecrireClients(List<LigneValide<ClientDTO>> lot, Set<String> colonnesFichier, ImportRapportDTO rapport,
+                               Map<String, Long> emailsVus) {
+        List<Client> clients = new ArrayList<>(lot.size());
+        for (LigneValide<ClientDTO> ligne : lot) {
+            // Deux lignes de même email ne peuvent figurer dans un même upsert
+            Long premiere = emailsVus.putIfAbsent(ligne.dto().getEmail(), ligne.numero());
+            if (premiere != null) {
+                rejeter(rapport, ligne.numero(), List.of(new ImportErreurDTO(ligne.numero(), "email",
+                        "Email déjà présent ligne " + premiere + " du fichier")));
+                continue;
+            }
+            Client client = clientMapper.toEntity(ligne.dto());
+            client.setActif(ligne.dto().getActif());
+            clients.add(client);
+        }
+
+        clientRepository.enregistrerParEmailEnLot(clients, colonnesFichier);
+        rapport.setImportees(rapport.getImportees() + clients.size());
+    }
+
+    private void rejeter(ImportRapportDTO rapport, long numero, List<ImportErreurDTO> erreurs) {
+        rapport.setRejetees(rapport.getRejetees() + 1);
+        for (ImportErreurDTO erreur : erreurs) {
+            if (rapport.getErreurs().size() < properties.getMaxErreurs()) {
+                rapport.getErreurs().add(erreur);
+            } else {
+                rapport.setErreursTronquees(true);
+            }
+        }
+    }
+
+    /**
+     * Position de chaque colonne attendue ; les noms sont reconnus sans tenir compte de la casse
+     */
+    private static Map<String, Integer> indexerColonnes(List<String> entete, List<String> colonnes, List<String> obligatoires) {
+        Map<String, String> parNom = new HashMap<>();
+        colonnes.forEach(colonne -> parNom.put(colonne.toLowerCase(Locale.ROOT), colonne));
+
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < entete.size(); i++) {
+            String nom = entete.get(i).trim();
+            String colonne = parNom.get(nom.toLowerCase(Locale.ROOT));
+            if (colonne == null) {
+                throw new BusinessException("Colonne inconnue : " + nom + " (colonnes acceptées : "
+                        + String.join(", ", colonnes) + ")");
+            }
+            if (index.putIfAbsent(colonne, i) != null) {
+                throw new BusinessException("Colonne en double : " + colonne);
+            }
+        }
+        List<String> absentes = obligatoires.stream().filter(colonne -> !index.containsKey(colonne)).toList();
+        if (!absentes.isEmpty()) {
+            throw new BusinessException("Colonne(s) obligatoire(s) absente(s) : " + String.join(", ", absentes));
+        }
+        return index;
+    }
+
+    /**
+     * Écriture d'un lot de lignes valides ; colonnesFichier liste les colonnes de l'en-tête
+     */
+    @FunctionalInterface
+    private interface Ecriture<T> {
+        void ecrire(List<LigneValide<T>> lot, Set<String> colonnesFichier, ImportRapportDTO rapport);
+    }
+
+    /**
+     * Ligne valide en attente d'écriture, avec son numéro pour le rapport
+     */
+    private record LigneValide<T>(long numero, T dto) {
+    }
+
+    /**
+     * Valeur impossible à convertir dans le type de la colonne
+     */
+    private static final class ValeurInvalideException extends RuntimeException {
+
+        private final String colonne;
+
+        ValeurInvalideException(String colonne, String message) {
+            super(message);
+            this.colonne = colonne;
+        }
+    }
+
+    /**
+     * Accès typé aux valeurs de la ligne courante ; cellule vide ou colonne absente = null
+     */
+    private static final class LigneCsv {
+
+        private final Map<String, Integer> index;
+        private List<String> valeurs;
+
+        LigneCsv(Map<String, Integer> index) {
+            this.index = index;
+        }
+
+        LigneCsv avec(List<String> valeurs) {
+            if (valeurs.size() > index.size()) {
+                throw new ValeurInvalideException(null, "Nombre de colonnes incorrect : " + valeurs.size()
+                        + " au lieu de " + index.size());
+            }
+            this.valeurs = valeurs;
+            return this;
+        }
+
+        boolean presente(String colonne) {
+            return index.containsKey(colonne);
+        }
+
+        String texte(String colonne) {
+            Integer i = index.get(colonne);
+            if (i == null || i >= valeurs.size()) {
+                return null;
+            }
+            String valeur = valeurs.get(i).trim();
+            return valeur.isEmpty() ? null : valeur;
+        }
+
+        Long entierLong(String colonne) {
+            String valeur = texte(colonne);
+            try {
+                return valeur == null ? null : Long.valueOf(valeur);
+            } catch (NumberFormatException e) {
+                throw new ValeurInvalideException(colonne, "Nombre entier invalide : " + valeur);
+            }
+        }
+
+        Integer entier(String colonne) {
+            String valeur = texte(colonne);
+            try {
+                return valeur == null ? null : Integer.valueOf(valeur);
+            } catch (NumberFormatException e) {
+                throw new ValeurInvalideException(colonne, "Nombre entier invalide : " + valeur);
+            }
+        }
+
+        BigDecimal decimal(String colonne) {
+            String valeur = texte(colonne);
+            try {
+                // Virgule décimale acceptée (exports Excel français)
+                return valeur == null ? null : new BigDecimal(valeur.replace(',', '.'));
+            } catch (NumberFormatException e) {
+                throw new ValeurInvalideException(colonne, "Nombre décimal invalide : " + valeur);
+            }
+        }
+
+        Boolean booleen(String colonne) {
+            String valeur = texte(colonne);
+            if (valeur == null) {
+                return null;
+            }
+            switch (valeur.toLowerCase(Locale.ROOT)) {
+                case "true", "vrai", "oui", "1":
+                    return true;
+                case "false", "faux", "non", "0":
+                    return false;
+                default:
+                    throw new ValeurInvalideException(colonne, "Booléen invalide : " + valeur + " (true/false, oui/non)");
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
+import com.monentreprise.gestiondevisfactures.repository.CompteurNumerotationRepository;
+import com.monentreprise.gestiondevisfactures.repository.DevisRepository;
+import com.monentreprise.gestiondevisfactures.repository.FactureRepository;
+import com.monentreprise.gestiondevisfactures.service.NumerotationService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Year;
+
+/**
+ * Implémentation du service de numérotation.
+ * Le compteur annuel est verrouillé ligne par ligne et incrémenté dans la transaction
+ * du document : les créations concurrentes sont sérialisées et un rollback libère
+ * le numéro, ce qui garantit une numérotation unique et sans trou.
+ */
+@Service
+@RequiredArgsConstructor
+public class NumerotationServiceImpl implements NumerotationService {
+
+    private final CompteurNumerotationRepository compteurRepository;
+    private final DevisRepository devisRepository;
+    private final FactureRepository factureRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Timed(value = "numerotation.allocation", description = "Attribution d'un numéro de devis/facture", histogram = true)
+    public String prochainNumero(CompteurNumerotation.TypeDocument type) {
+        int annee = Year.now().getValue();
+
+        CompteurNumerotation compteur = compteurRepository.findForUpdate(type, annee)
+                .orElseGet(() -> initialiserCompteur(type, annee));
+
+        compteur.setValeur(compteur.getValeur() + 1);
+        compteurRepository.save(compteur);
+
+        return String.format("%s-%d-%04d", type.getPrefixe(), annee, compteur.getValeur());
+    }
+
+    /**
+     * Crée le compteur de l'année à partir du plus grand numéro déjà attribué,
+     * puis le relit verrouillé
+     */
+    private CompteurNumerotation initialiserCompteur(CompteurNumerotation.TypeDocument type, int annee) {
+        String prefixe = String.format("%s-%d-", type.getPrefixe(), annee);
+        long dernier = switch (type) {
+            case DEVIS -> devisRepository.findDernierNumeroSequence(prefixe);
+            case FACTURE -> factureRepository.findDernierNumeroSequence(prefixe);
+        };
+
+        compteurRepository.insertIfAbsent(type.name(), annee, dernier);
+        return compteurRepository.findForUpdate(type, annee)
+                .orElseThrow(() -> new IllegalStateException("Compteur de numérotation introuvable : " + type + " " + annee));
+    }
+}
@@ -0,0 +1,319 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.config.PdfCacheProperties;
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Implémentation du cache des PDF.
+ * Deux niveaux : une LRU en mémoire bornée en nombre et en octets, puis un stockage
+ * disque adressé par le contenu (objets/{sha256}.pdf) et des références
+ * refs/{TYPE}-{id}-{version} qui pointent vers l'empreinte. La version réunissant la date
+ * de modification du document et l'ETag de l'entreprise, une modification produit une nouvelle clé ;
+ * l'invalidation explicite libère simplement la place des anciennes versions.
+ * Un objet pouvant être partagé par plusieurs références, l'invalidation ne retire que
+ * les références ; les objets orphelins sont supprimés par un balayage périodique.
+ */
+@Slf4j
+@Service
+public class PdfCacheServiceImpl implements PdfCacheService {
+
+    /**
+     * Âge minimal d'un objet orphelin supprimé : laisse à une écriture en cours le temps
+     * de poser sa référence après l'objet
+     */
+    private static final Duration DELAI_GRACE_ORPHELINS = Duration.ofMinutes(1);
+
+    private final PdfCacheProperties properties;
+    private final Path objetsDir;
+    private final Path refsDir;
+    private final Map<String, EntreeMemoire> memoire = new LinkedHashMap<>(16, 0.75f, true);
+    private long octetsEnMemoire;
+    private final AtomicLong dernierBalayage = new AtomicLong(System.nanoTime());
+
+    public PdfCacheServiceImpl(PdfCacheProperties properties) {
+        this.properties = properties;
+        Path racine = Path.of(properties.getDirectory());
+        this.objetsDir = racine.resolve("objets");
+        this.refsDir = racine.resolve("refs");
+        if (properties.isEnabled()) {
+            try {
+                Files.createDirectories(objetsDir);
+                Files.createDirectories(refsDir);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible de créer le répertoire du cache PDF " + racine, e);
+            }
+        }
+    }
+
+    @Override
+    public PdfFichier getOrRender(CompteurNumerotation.TypeDocument type, Long id, String version,
+                                  String nomFichier, Supplier<byte[]> rendu) {
+        if (!properties.isEnabled()) {
+            byte[] contenu = rendu.get();
+            return new PdfFichier(nomFichier, etag(empreinte(contenu)), () -> contenu);
+        }
+
+        String cle = prefixe(type, id) + version;
+
+        EntreeMemoire entree = lireMemoire(cle);
+        if (entree != null) {
+            return new PdfFichier(nomFichier, etag(entree.empreinte()), entree::contenu);
+        }
+
+        String reference = lireReference(cle);
+        if (reference != null) {
+            // Lu tout de suite : une invalidation concurrente ne peut plus faire échouer la réponse
+            byte[] contenu = chargerObjet(cle, reference);
+            if (contenu != null) {
+                return new PdfFichier(nomFichier, etag(reference), () -> contenu);
+            }
+        }
+
+        byte[] contenu = rendu.get();
+        String empreinte = empreinte(contenu);
+        ecrireDisque(cle, empreinte, contenu);
+        ajouterMemoire(cle, new EntreeMemoire(empreinte, contenu));
+        return new PdfFichier(nomFichier, etag(empreinte), () -> contenu);
+    }
+
+    @Override
+    public void invalider(CompteurNumerotation.TypeDocument type, Long id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String prefixe = prefixe(type, id);
+        synchronized (memoire) {
+            Iterator<Map.Entry<String, EntreeMemoire>> it = memoire.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, EntreeMemoire> e = it.next();
+                if (e.getKey().startsWith(prefixe)) {
+                    octetsEnMemoire -= e.getValue().contenu().length;
+                    it.remove();
+                }
+            }
+        }
+        try (DirectoryStream<Path> refs = Files.newDirectoryStream(refsDir, prefixe + "*")) {
+            for (Path ref : refs) {
+                Files.deleteIfExists(ref);
+            }
+        } catch (IOException e) {
+            log.warn("Invalidation du cache PDF incomplète pour {} : {}", prefixe, e.getMessage());
+        }
+        balayerSiEchu();
+    }
+
+    @Override
+    public void invaliderTout() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (memoire) {
+            memoire.clear();
+            octetsEnMemoire = 0;
+        }
+        supprimerContenu(refsDir);
+        supprimerContenu(objetsDir);
+    }
+
+    @Override
+    public void invaliderToutApresValidation() {
+        // Avant la validation, un rendu concurrent relirait l'ancien état et le remettrait en cache
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invaliderTout();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invaliderTout();
+            }
+        });
+    }
+
+    private EntreeMemoire lireMemoire(String cle) {
+        synchronized (memoire) {
+            return memoire.get(cle);
+        }
+    }
+
+    private void ajouterMemoire(String cle, EntreeMemoire entree) {
+        if (entree.contenu().length > properties.getMemoryMaxBytes()) {
+            return;
+        }
+        synchronized (memoire) {
+            EntreeMemoire ancienne = memoire.put(cle, entree);
+            if (ancienne != null) {
+                octetsEnMemoire -= ancienne.contenu().length;
+            }
+            octetsEnMemoire += entree.contenu().length;
+
+            // Éviction LRU : l'itération d'une LinkedHashMap en ordre d'accès commence par la plus ancienne
+            Iterator<EntreeMemoire> it = memoire.values().iterator();
+            while (it.hasNext() && (memoire.size() > properties.getMemoryMaxEntries()
+                    || octetsEnMemoire > properties.getMemoryMaxBytes())) {
+                octetsEnMemoire -= it.next().contenu().length;
+                it.remove();
+            }
+        }
+    }
+
+    private String lireReference(String cle) {
+        Path ref = refsDir.resolve(cle);
+        try {
+            return Files.exists(ref) ? Files.readString(ref, StandardCharsets.US_ASCII).trim() : null;
+        } catch (IOException e) {
+            log.warn("Référence de cache PDF illisible {} : {}", cle, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Lit l'objet pointé par une référence ; null s'il a disparu ou est illisible (le PDF est alors régénéré)
+     */
+    private byte[] chargerObjet(String cle, String empreinte) {
+        Path objet = objetsDir.resolve(empreinte + ".pdf");
+        try {
+            byte[] contenu = Files.readAllBytes(objet);
+            ajouterMemoire(cle, new EntreeMemoire(empreinte, contenu));
+            return contenu;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Lecture du PDF en cache impossible {} : {}", objet, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Lance le balayage des objets orphelins si le précédent date de plus de app.pdf.cache.sweep-interval
+     */
+    private void balayerSiEchu() {
+        long precedent = dernierBalayage.get();
+        long maintenant = System.nanoTime();
+        if (maintenant - precedent < properties.getSweepInterval().toNanos()
+                || !dernierBalayage.compareAndSet(precedent, maintenant)) {
+            return;
+        }
+        balayerOrphelins();
+    }
+
+    /**
+     * Supprime les objets qu'aucune référence ne désigne plus
+     */
+    private void balayerOrphelins() {
+        Set<String> referencees = new HashSet<>();
+        try (DirectoryStream<Path> refs = Files.newDirectoryStream(refsDir)) {
+            for (Path ref : refs) {
+                try {
+                    referencees.add(Files.readString(ref, StandardCharsets.US_ASCII).trim());
+                } catch (NoSuchFileException e) {
+                    // Référence invalidée pendant le parcours
+                }
+            }
+        } catch (IOException e) {
+            // Sans la liste complète des références, aucun objet ne peut être supprimé sans risque
+            log.warn("Balayage du cache PDF abandonné : {}", e.getMessage());
+            return;
+        }
+
+        Instant limite = Instant.now().minus(DELAI_GRACE_ORPHELINS);
+        int supprimes = 0;
+        try (DirectoryStream<Path> objets = Files.newDirectoryStream(objetsDir, "*.pdf")) {
+            for (Path objet : objets) {
+                String nom = objet.getFileName().toString();
+                if (referencees.contains(nom.substring(0, nom.length() - ".pdf".length()))) {
+                    continue;
+                }
+                try {
+                    if (Files.getLastModifiedTime(objet).toInstant().isBefore(limite) && Files.deleteIfExists(objet)) {
+                        supprimes++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // Déjà supprimé
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Balayage du cache PDF incomplet : {}", e.getMessage());
+        }
+        log.debug("Balayage du cache PDF : {} objet(s) orphelin(s) supprimé(s)", supprimes);
+    }
+
+    private void ecrireDisque(String cle, String empreinte, byte[] contenu) {
+        try {
+            Path objet = objetsDir.resolve(empreinte + ".pdf");
+            if (!Files.exists(objet)) {
+                ecrireAtomique(objet, contenu);
+            }
+            ecrireAtomique(refsDir.resolve(cle), empreinte.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            // Le disque n'est qu'un second niveau : on sert quand même le PDF généré
+            log.warn("Écriture du cache PDF impossible pour {} : {}", cle, e.getMessage());
+        }
+    }
+
+    private static void ecrireAtomique(Path cible, byte[] contenu) throws IOException {
+        Path tmp = Files.createTempFile(cible.getParent(), "tmp-", ".part");
+        try {
+            Files.write(tmp, contenu);
+            Files.move(tmp, cible, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void supprimerContenu(Path dir) {
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(dir)) {
+            for (Path fichier : fichiers) {
+                Files.deleteIfExists(fichier);
+            }
+        } catch (IOException e) {
+            log.warn("Nettoyage du cache PDF incomplet dans {} : {}", dir, e.getMessage());
+        }
+    }
+
+    private static String prefixe(CompteurNumerotation.TypeDocument type, Long id) {
+        return type.name() + "-" + id + "-";
+    }
+
+    private static String etag(String empreinte) {
+        return "\"" + empreinte + "\"";
+    }
+
+    private static String empreinte(byte[] contenu) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenu));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private record EntreeMemoire(String empreinte, byte[] contenu) {
+    }
+}
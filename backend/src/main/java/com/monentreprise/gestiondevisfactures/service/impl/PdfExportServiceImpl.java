@@ -0,0 +1,139 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.config.PdfExportProperties;
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+import com.monentreprise.gestiondevisfactures.repository.FactureRepository;
+import com.monentreprise.gestiondevisfactures.repository.projection.DocumentVersionProjection;
+import com.monentreprise.gestiondevisfactures.service.PdfExportService;
+import com.monentreprise.gestiondevisfactures.service.PdfService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Implémentation de l'export des PDF en lot.
+ * Les factures sont rendues en parallèle sur un pool borné ; l'archive est écrite dans
+ * l'ordre, et au plus {@code window} PDF par export sont en mémoire à un instant donné.
+ */
+@Service
+public class PdfExportServiceImpl implements PdfExportService {
+
+    // Dates par défaut quand un seul côté de la période est fourni
+    private static final LocalDate DEBUT_MIN = LocalDate.of(1970, 1, 1);
+    private static final LocalDate FIN_MAX = LocalDate.of(9999, 12, 30);
+
+    private final FactureRepository factureRepository;
+    private final PdfService pdfService;
+    private final PdfExportProperties properties;
+    private final ExecutorService executor;
+
+    public PdfExportServiceImpl(FactureRepository factureRepository,
+                                PdfService pdfService,
+                                PdfExportProperties properties) {
+        this.factureRepository = factureRepository;
+        this.pdfService = pdfService;
+        this.properties = properties;
+
+        // Pool saturé : le thread de l'export rend lui-même le document (CallerRuns),
+        // ce qui ralentit l'export au lieu de le faire échouer
+        AtomicInteger compteur = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getThreads() * 2),
+                r -> {
+                    Thread thread = new Thread(r, "pdf-export-" + compteur.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DocumentVersionProjection> facturesAExporter(LocalDate debut, LocalDate fin, Facture.StatutFacture statut) {
+        if (debut == null && fin == null && statut == null) {
+            throw new BusinessException("Précisez une période (debut, fin) ou un statut pour l'export");
+        }
+        LocalDate premierJour = debut != null ? debut : DEBUT_MIN;
+        LocalDate dernierJour = fin != null ? fin : FIN_MAX;
+        if (dernierJour.isBefore(premierJour)) {
+            throw new BusinessException("La date de fin doit être postérieure à la date de début");
+        }
+
+        List<DocumentVersionProjection> factures = factureRepository.findVersionsForExport(
+                premierJour.atStartOfDay(), dernierJour.plusDays(1).atStartOfDay(), statut);
+
+        if (factures.isEmpty()) {
+            throw new BusinessException("Aucune facture ne correspond aux critères d'export");
+        }
+        if (factures.size() > properties.getMaxDocuments()) {
+            throw new BusinessException("Export limité à " + properties.getMaxDocuments()
+                    + " factures (" + factures.size() + " sélectionnées), réduisez la période");
+        }
+        return factures;
+    }
+
+    @Override
+    public void ecrireZipFactures(List<DocumentVersionProjection> factures, OutputStream out) throws IOException {
+        int fenetre = Math.max(1, properties.getWindow());
+        Iterator<DocumentVersionProjection> aRendre = factures.iterator();
+        Deque<Future<byte[]>> enCours = new ArrayDeque<>(fenetre);
+        Deque<String> noms = new ArrayDeque<>(fenetre);
+
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            // Les PDF sont déjà compressés : inutile de payer une compression forte
+            zip.setLevel(Deflater.BEST_SPEED);
+
+            while (aRendre.hasNext() || !enCours.isEmpty()) {
+                while (aRendre.hasNext() && enCours.size() < fenetre) {
+                    DocumentVersionProjection facture = aRendre.next();
+                    noms.addLast(facture.getNumero() + ".pdf");
+                    enCours.addLast(executor.submit(() -> pdfService.getPdfFacture(facture).getContenu()));
+                }
+
+                byte[] pdf = attendre(enCours.removeFirst());
+                zip.putNextEntry(new ZipEntry(noms.removeFirst()));
+                zip.write(pdf);
+                zip.closeEntry();
+            }
+        } finally {
+            // Client déconnecté ou erreur de rendu : on abandonne les rendus restants
+            enCours.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static byte[] attendre(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export PDF interrompu");
+        } catch (ExecutionException e) {
+            throw new IOException("Échec du rendu d'une facture pendant l'export", e.getCause());
+        }
+    }
+}
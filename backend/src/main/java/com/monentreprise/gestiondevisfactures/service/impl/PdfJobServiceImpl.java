@@ -0,0 +1,218 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.config.PdfJobProperties;
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
+import com.monentreprise.gestiondevisfactures.dto.PdfJobDTO;
+import com.monentreprise.gestiondevisfactures.dto.PdfJobRequest;
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
+import com.monentreprise.gestiondevisfactures.exception.TooManyRequestsException;
+import com.monentreprise.gestiondevisfactures.repository.DevisRepository;
+import com.monentreprise.gestiondevisfactures.repository.FactureRepository;
+import com.monentreprise.gestiondevisfactures.service.PdfJobService;
+import com.monentreprise.gestiondevisfactures.service.PdfService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implémentation de la génération PDF asynchrone.
+ * Les rendus tournent sur un pool dédié à file bornée : une rafale de PDF ne peut
+ * ni occuper les threads HTTP ni épuiser la mémoire, et la file pleine se traduit
+ * par un 429. Les travaux terminés sont conservés pendant app.pdf.jobs.ttl.
+ */
+@Service
+public class PdfJobServiceImpl implements PdfJobService {
+
+    private final PdfService pdfService;
+    private final DevisRepository devisRepository;
+    private final FactureRepository factureRepository;
+    private final PdfJobProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, PdfJob> jobs = new ConcurrentHashMap<>();
+    /**
+     * Places réservées dans jobs : réservées avant l'ajout, libérées par le retrait effectif
+     */
+    private final AtomicInteger nombreJobs = new AtomicInteger();
+
+    public PdfJobServiceImpl(PdfService pdfService,
+                             DevisRepository devisRepository,
+                             FactureRepository factureRepository,
+                             PdfJobProperties properties) {
+        this.pdfService = pdfService;
+        this.devisRepository = devisRepository;
+        this.factureRepository = factureRepository;
+        this.properties = properties;
+
+        // Threads plateforme : le rendu est limité par le CPU, threads en borne le parallélisme
+        AtomicInteger compteur = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, "pdf-job-" + compteur.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public PdfJobDTO soumettre(PdfJobRequest request) {
+        verifierDocument(request.getType(), request.getDocumentId());
+
+        purgerExpires();
+        if (!reserverPlace()) {
+            throw saturation();
+        }
+
+        PdfJob job = new PdfJob(UUID.randomUUID().toString(), request.getType(), request.getDocumentId());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> executer(job));
+        } catch (RejectedExecutionException e) {
+            retirer(job);
+            throw saturation();
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public PdfJobDTO getStatut(String jobId) {
+        return trouver(jobId).toDTO();
+    }
+
+    @Override
+    public PdfFichier getResultat(String jobId) {
+        PdfJob job = trouver(jobId);
+        switch (job.statut) {
+            case TERMINE:
+                return job.resultat;
+            case ECHEC:
+                throw new BusinessException("La génération du PDF a échoué : " + job.erreur);
+            default:
+                throw new BusinessException("Le PDF n'est pas encore prêt (statut " + job.statut + ")");
+        }
+    }
+
+    private void executer(PdfJob job) {
+        job.statut = PdfJobDTO.StatutJob.EN_COURS;
+        try {
+            PdfFichier pdf = job.type == CompteurNumerotation.TypeDocument.DEVIS
+                    ? pdfService.getPdfDevis(job.documentId)
+                    : pdfService.getPdfFacture(job.documentId);
+            // Force le rendu (ou la lecture du cache) dans le thread du travail
+            byte[] contenu = pdf.getContenu();
+            job.resultat = new PdfFichier(pdf.getNomFichier(), pdf.getEtag(), () -> contenu);
+            job.statut = PdfJobDTO.StatutJob.TERMINE;
+        } catch (RuntimeException e) {
+            job.erreur = e.getMessage();
+            job.statut = PdfJobDTO.StatutJob.ECHEC;
+        } finally {
+            job.dateFin = LocalDateTime.now();
+        }
+    }
+
+    private void verifierDocument(CompteurNumerotation.TypeDocument type, Long documentId) {
+        boolean existe = type == CompteurNumerotation.TypeDocument.DEVIS
+                ? devisRepository.existsById(documentId)
+                : factureRepository.existsById(documentId);
+        if (!existe) {
+            throw new ResourceNotFoundException(
+                    type == CompteurNumerotation.TypeDocument.DEVIS ? "Devis" : "Facture", "id", documentId);
+        }
+    }
+
+    private PdfJob trouver(String jobId) {
+        PdfJob job = jobs.get(jobId);
+        if (job == null || job.estExpire(properties.getTtl().toSeconds())) {
+            throw new ResourceNotFoundException("Travail PDF", "id", jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Réserve une place parmi app.pdf.jobs.max-jobs ; le test et l'incrément sont atomiques,
+     * des soumissions concurrentes ne peuvent donc pas dépasser la limite
+     */
+    private boolean reserverPlace() {
+        int reservees;
+        do {
+            reservees = nombreJobs.get();
+            if (reservees >= properties.getMaxJobs()) {
+                return false;
+            }
+        } while (!nombreJobs.compareAndSet(reservees, reservees + 1));
+        return true;
+    }
+
+    /**
+     * Retire un travail et libère sa place, une seule fois même si plusieurs threads le retirent
+     */
+    private void retirer(PdfJob job) {
+        if (jobs.remove(job.id, job)) {
+            nombreJobs.decrementAndGet();
+        }
+    }
+
+    /**
+     * Retire les travaux terminés depuis plus de app.pdf.jobs.ttl (et leur PDF)
+     */
+    private void purgerExpires() {
+        long ttl = properties.getTtl().toSeconds();
+        for (PdfJob job : jobs.values()) {
+            if (job.estExpire(ttl)) {
+                retirer(job);
+            }
+        }
+    }
+
+    private TooManyRequestsException saturation() {
+        return new TooManyRequestsException("Trop de PDF en cours de génération, réessayez plus tard",
+                properties.getRetryAfterSeconds());
+    }
+
+    /**
+     * État interne d'un travail (les champs sont lus par les threads HTTP)
+     */
+    private static class PdfJob {
+
+        private final String id;
+        private final CompteurNumerotation.TypeDocument type;
+        private final Long documentId;
+        private final LocalDateTime dateCreation = LocalDateTime.now();
+        private volatile PdfJobDTO.StatutJob statut = PdfJobDTO.StatutJob.EN_ATTENTE;
+        private volatile PdfFichier resultat;
+        private volatile String erreur;
+        private volatile LocalDateTime dateFin;
+
+        private PdfJob(String id, CompteurNumerotation.TypeDocument type, Long documentId) {
+            this.id = id;
+            this.type = type;
+            this.documentId = documentId;
+        }
+
+        private boolean estExpire(long ttlSecondes) {
+            LocalDateTime fin = dateFin;
+            return fin != null && fin.plusSeconds(ttlSecondes).isBefore(LocalDateTime.now());
+        }
+
+        private PdfJobDTO toDTO() {
+            return new PdfJobDTO(id, type, documentId, statut, erreur, dateCreation, dateFin);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.monentreprise.gestiondevisfactures.service.impl;
 
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
@@ -11,10 +13,16 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import com.monentreprise.gestiondevisfactures.dto.EntrepriseDTO;
+import com.monentreprise.gestiondevisfactures.dto.LogoEntreprise;
+import com.monentreprise.gestiondevisfactures.dto.PdfFichier;
+import com.monentreprise.gestiondevisfactures.dto.ProfilEntreprise;
+import com.monentreprise.gestiondevisfactures.entity.CompteurNumerotation;
 import com.monentreprise.gestiondevisfactures.entity.Devis;
 import com.monentreprise.gestiondevisfactures.entity.DevisDetail;
 import com.monentreprise.gestiondevisfactures.entity.Facture;
@@ -23,14 +31,26 @@ import com.monentreprise.gestiondevisfactures.exception.BusinessException;
 import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
 import com.monentreprise.gestiondevisfactures.repository.DevisRepository;
 import com.monentreprise.gestiondevisfactures.repository.FactureRepository;
+import com.monentreprise.gestiondevisfactures.repository.projection.DocumentVersionProjection;
+import com.monentreprise.gestiondevisfactures.service.EntrepriseService;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
 import com.monentreprise.gestiondevisfactures.service.PdfService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
 
 /**
  * Implémentation du service de génération PDF
@@ -42,13 +62,101 @@ public class PdfServiceImpl implements PdfService {
 
     private final DevisRepository devisRepository;
     private final FactureRepository factureRepository;
+    private final PdfCacheService pdfCacheService;
+    private final EntrepriseService entrepriseService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Parties fixes des PDF, reconstruites quand les informations de l'entreprise changent
+     */
+    private volatile ModelePdf modele;
 
     private static final DeviceRgb PRIMARY_COLOR = new DeviceRgb(41, 128, 185);
     private static final DeviceRgb HEADER_COLOR = new DeviceRgb(52, 73, 94);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter VERSION_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSSSSS");
+
+    private static final String NOM_PAR_DEFAUT = "MON ENTREPRISE";
+    private static final String[] EN_TETES_LIGNES = {"Produit", "Qté", "Prix HT", "TVA", "Total HT", "Total TTC"};
+    private static final float[] LARGEURS_LIGNES = {40, 10, 15, 10, 12, 13};
+    private static final Border BORDURE_LIGNE = new SolidBorder(ColorConstants.LIGHT_GRAY, 0.5f);
+    private static final String CONDITIONS_DEVIS =
+            "- Ce devis est valable 30 jours à compter de sa date d'émission.\n" +
+            "- Toute commande implique l'acceptation des présentes conditions.\n" +
+            "- Délai de livraison: à convenir lors de la commande.";
+    private static final String CONDITIONS_FACTURE =
+            "- Paiement à réception de facture, sauf accord préalable.\n" +
+            "- En cas de retard de paiement, des pénalités seront appliquées.\n" +
+            "- TVA non applicable, art. 293 B du CGI (si applicable).";
+
+    // Mêmes sorties que "%.2f" et "%.0f" (arrondi HALF_UP, locale par défaut), sans Formatter par cellule
+    private static final ThreadLocal<DecimalFormat> FORMAT_MONTANT = ThreadLocal.withInitial(() -> format("0.00"));
+    private static final ThreadLocal<DecimalFormat> FORMAT_TAUX = ThreadLocal.withInitial(() -> format("0"));
+
+    @Override
+    public PdfFichier getPdfDevis(Long devisId) {
+        DocumentVersionProjection version = devisRepository.findVersionById(devisId)
+                .orElseThrow(() -> new ResourceNotFoundException("Devis", "id", devisId));
+        ProfilEntreprise profil = entrepriseService.getProfil();
+        return pdfCacheService.getOrRender(CompteurNumerotation.TypeDocument.DEVIS, devisId,
+                version(version, profil), version.getNumero() + ".pdf",
+                () -> mesurerRendu(CompteurNumerotation.TypeDocument.DEVIS, () -> genererPdfDevis(devisId, profil)));
+    }
+
+    @Override
+    public PdfFichier getPdfFacture(Long factureId) {
+        DocumentVersionProjection version = factureRepository.findVersionById(factureId)
+                .orElseThrow(() -> new ResourceNotFoundException("Facture", "id", factureId));
+        return getPdfFacture(version);
+    }
+
+    @Override
+    public PdfFichier getPdfFacture(DocumentVersionProjection facture) {
+        ProfilEntreprise profil = entrepriseService.getProfil();
+        return pdfCacheService.getOrRender(CompteurNumerotation.TypeDocument.FACTURE, facture.getId(),
+                version(facture, profil), facture.getNumero() + ".pdf",
+                () -> mesurerRendu(CompteurNumerotation.TypeDocument.FACTURE,
+                        () -> genererPdfFacture(facture.getId(), profil)));
+    }
+
+    /**
+     * Rendu effectif (hors cache) : durée et taille du PDF produit, par type de document
+     */
+    private byte[] mesurerRendu(CompteurNumerotation.TypeDocument type, Supplier<byte[]> rendu) {
+        byte[] contenu = Timer.builder("pdf.rendu")
+                .description("Durée de rendu d'un PDF")
+                .tag("type", type.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(rendu);
+        DistributionSummary.builder("pdf.taille")
+                .description("Taille des PDF rendus")
+                .baseUnit("bytes")
+                .tag("type", type.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(contenu.length);
+        return contenu;
+    }
+
+    /**
+     * Version du PDF : date de modification du document (0 pour les lignes antérieures à la colonne)
+     * et ETag des informations de l'entreprise. Le rendu utilise le même profil que la clé : un rendu
+     * commencé avant un enregistrement de l'entreprise reste rangé sous l'ancienne version.
+     */
+    private static String version(DocumentVersionProjection projection, ProfilEntreprise profil) {
+        String document = projection.getDateModification() != null
+                ? projection.getDateModification().format(VERSION_FORMATTER)
+                : "0";
+        return document + "-" + profil.etag().replace("\"", "");
+    }
 
     @Override
     public byte[] genererPdfDevis(Long devisId) {
+        return genererPdfDevis(devisId, entrepriseService.getProfil());
+    }
+
+    private byte[] genererPdfDevis(Long devisId, ProfilEntreprise profil) {
         Devis devis = devisRepository.findByIdWithLignes(devisId)
                 .orElseThrow(() -> new ResourceNotFoundException("Devis", "id", devisId));
 
@@ -59,7 +167,7 @@ public class PdfServiceImpl implements PdfService {
             document.setMargins(40, 40, 40, 40);
 
             // En-tête entreprise
-            addEntrepriseHeader(document, "DEVIS");
+            addEntrepriseHeader(document, modele(profil), "DEVIS");
 
             // Informations du devis
             addDocumentInfo(document, "Devis N°", devis.getNumeroDevis(), 
@@ -105,6 +213,10 @@ public class PdfServiceImpl implements PdfService {
 
     @Override
     public byte[] genererPdfFacture(Long factureId) {
+        return genererPdfFacture(factureId, entrepriseService.getProfil());
+    }
+
+    private byte[] genererPdfFacture(Long factureId, ProfilEntreprise profil) {
         Facture facture = factureRepository.findByIdWithLignes(factureId)
                 .orElseThrow(() -> new ResourceNotFoundException("Facture", "id", factureId));
 
@@ -115,7 +227,7 @@ public class PdfServiceImpl implements PdfService {
             document.setMargins(40, 40, 40, 40);
 
             // En-tête entreprise
-            addEntrepriseHeader(document, "FACTURE");
+            addEntrepriseHeader(document, modele(profil), "FACTURE");
 
             // Informations de la facture
             addDocumentInfo(document, "Facture N°", facture.getNumeroFacture(),
@@ -169,15 +281,34 @@ public class PdfServiceImpl implements PdfService {
         }
     }
 
-    private void addEntrepriseHeader(Document document, String documentType) {
+    /**
+     * Modèle de la version donnée des informations de l'entreprise, reconstruit une seule fois par version
+     */
+    private ModelePdf modele(ProfilEntreprise profil) {
+        ModelePdf courant = modele;
+        if (courant == null || !courant.version().equals(profil.etag())) {
+            courant = ModelePdf.creer(profil, courant);
+            modele = courant;
+        }
+        return courant;
+    }
+
+    private void addEntrepriseHeader(Document document, ModelePdf modele, String documentType) {
+        // Logo
+        if (modele.logo() != null) {
+            document.add(new Image(modele.logo())
+                    .scaleToFit(120, 60)
+                    .setMarginBottom(10));
+        }
+
         // Nom de l'entreprise
-        document.add(new Paragraph("MON ENTREPRISE")
+        document.add(new Paragraph(modele.nom())
                 .setFontSize(24)
                 .setBold()
                 .setFontColor(PRIMARY_COLOR));
 
         // Coordonnées
-        document.add(new Paragraph("123 Rue de l'Exemple\n75001 Paris\nTél: 01 23 45 67 89\nEmail: contact@monentreprise.com\nSIRET: 123 456 789 00012")
+        document.add(new Paragraph(modele.coordonnees())
                 .setFontSize(10)
                 .setMarginBottom(20));
 
@@ -190,6 +321,58 @@ public class PdfServiceImpl implements PdfService {
                 .setMarginBottom(20));
     }
 
+    /**
+     * Contenu de l'en-tête pour une version des informations de l'entreprise : textes assemblés
+     * et logo décodé une seule fois. Les polices et éléments iText ne peuvent pas être partagés
+     * (un PdfFont appartient au premier PdfDocument qui l'utilise) et restent créés à chaque rendu.
+     */
+    private record ModelePdf(String version, String nom, String coordonnees, String empreinteLogo, ImageData logo) {
+
+        static ModelePdf creer(ProfilEntreprise profil, ModelePdf precedent) {
+            EntrepriseDTO entreprise = profil.entreprise();
+
+            StringJoiner coordonnees = new StringJoiner("\n");
+            ajouter(coordonnees, "", entreprise.getAdresse());
+            ajouter(coordonnees, "Tél: ", entreprise.getTelephone());
+            ajouter(coordonnees, "Email: ", entreprise.getEmail());
+            StringJoiner legal = new StringJoiner(" | ");
+            ajouter(legal, "ICE: ", entreprise.getIce());
+            ajouter(legal, "IF: ", entreprise.getIdentifiantFiscal());
+            ajouter(legal, "RC: ", entreprise.getRc());
+            ajouter(legal, "Patente: ", entreprise.getPatente());
+            if (legal.length() > 0) {
+                coordonnees.add(legal.toString());
+            }
+
+            // Le logo n'est décodé à nouveau que s'il a changé
+            LogoEntreprise logo = profil.logo();
+            String empreinteLogo = logo != null ? logo.empreinte() : null;
+            ImageData image = null;
+            if (logo != null) {
+                image = precedent != null && empreinteLogo.equals(precedent.empreinteLogo())
+                        ? precedent.logo()
+                        : ImageDataFactory.create(logo.contenu());
+            }
+
+            String nom = entreprise.getNom() != null && !entreprise.getNom().isBlank()
+                    ? entreprise.getNom()
+                    : NOM_PAR_DEFAUT;
+            return new ModelePdf(profil.etag(), nom, coordonnees.toString(), empreinteLogo, image);
+        }
+
+        private static void ajouter(StringJoiner joiner, String libelle, String valeur) {
+            if (valeur != null && !valeur.isBlank()) {
+                joiner.add(libelle + valeur);
+            }
+        }
+    }
+
+    private static DecimalFormat format(String motif) {
+        DecimalFormat format = new DecimalFormat(motif, DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)));
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    }
+
     private void addDocumentInfo(Document document, String label, String numero, String date) {
         Table infoTable = new Table(UnitValue.createPercentArray(new float[]{50, 50}))
                 .useAllAvailableWidth()
@@ -218,13 +401,12 @@ public class PdfServiceImpl implements PdfService {
     }
 
     private Table createLignesTable() {
-        Table table = new Table(UnitValue.createPercentArray(new float[]{40, 10, 15, 10, 12, 13}))
+        Table table = new Table(UnitValue.createPercentArray(LARGEURS_LIGNES))
                 .useAllAvailableWidth()
                 .setMarginTop(10);
 
         // En-têtes
-        String[] headers = {"Produit", "Qté", "Prix HT", "TVA", "Total HT", "Total TTC"};
-        for (String header : headers) {
+        for (String header : EN_TETES_LIGNES) {
             Cell cell = new Cell()
                     .add(new Paragraph(header).setBold().setFontColor(ColorConstants.WHITE))
                     .setBackgroundColor(HEADER_COLOR)
@@ -242,10 +424,11 @@ public class PdfServiceImpl implements PdfService {
         
         table.addCell(createTableCell(produit, TextAlignment.LEFT));
         table.addCell(createTableCell(String.valueOf(quantite), TextAlignment.CENTER));
-        table.addCell(createTableCell(String.format("%.2f €", prixHT), TextAlignment.RIGHT));
-        table.addCell(createTableCell(String.format("%.0f%%", tva), TextAlignment.CENTER));
-        table.addCell(createTableCell(String.format("%.2f €", totalHT), TextAlignment.RIGHT));
-        table.addCell(createTableCell(String.format("%.2f €", totalTTC), TextAlignment.RIGHT));
+        DecimalFormat montant = FORMAT_MONTANT.get();
+        table.addCell(createTableCell(montant.format(prixHT) + " €", TextAlignment.RIGHT));
+        table.addCell(createTableCell(FORMAT_TAUX.get().format(tva) + "%", TextAlignment.CENTER));
+        table.addCell(createTableCell(montant.format(totalHT) + " €", TextAlignment.RIGHT));
+        table.addCell(createTableCell(montant.format(totalTTC) + " €", TextAlignment.RIGHT));
     }
 
     private void addTotaux(Document document, java.math.BigDecimal totalHT, 
@@ -255,14 +438,15 @@ public class PdfServiceImpl implements PdfService {
                 .useAllAvailableWidth()
                 .setMarginTop(20);
 
+        DecimalFormat montant = FORMAT_MONTANT.get();
         totauxTable.addCell(createTotauxCell("Total HT:", false));
-        totauxTable.addCell(createTotauxCell(String.format("%.2f €", totalHT), false));
+        totauxTable.addCell(createTotauxCell(montant.format(totalHT) + " €", false));
         
         totauxTable.addCell(createTotauxCell("Total TVA:", false));
-        totauxTable.addCell(createTotauxCell(String.format("%.2f €", totalTVA), false));
+        totauxTable.addCell(createTotauxCell(montant.format(totalTVA) + " €", false));
         
         totauxTable.addCell(createTotauxCell("Total TTC:", true));
-        totauxTable.addCell(createTotauxCell(String.format("%.2f €", totalTTC), true));
+        totauxTable.addCell(createTotauxCell(montant.format(totalTTC) + " €", true));
 
         document.add(totauxTable);
     }
@@ -273,18 +457,7 @@ public class PdfServiceImpl implements PdfService {
                 .setFontSize(10)
                 .setMarginTop(30));
 
-        String conditions;
-        if (isDevis) {
-            conditions = "- Ce devis est valable 30 jours à compter de sa date d'émission.\n" +
-                    "- Toute commande implique l'acceptation des présentes conditions.\n" +
-                    "- Délai de livraison: à convenir lors de la commande.";
-        } else {
-            conditions = "- Paiement à réception de facture, sauf accord préalable.\n" +
-                    "- En cas de retard de paiement, des pénalités seront appliquées.\n" +
-                    "- TVA non applicable, art. 293 B du CGI (si applicable).";
-        }
-
-        document.add(new Paragraph(conditions)
+        document.add(new Paragraph(isDevis ? CONDITIONS_DEVIS : CONDITIONS_FACTURE)
                 .setFontSize(8)
                 .setFontColor(ColorConstants.GRAY));
     }
@@ -300,7 +473,7 @@ public class PdfServiceImpl implements PdfService {
                 .add(new Paragraph(text).setFontSize(9))
                 .setTextAlignment(alignment)
                 .setPadding(5)
-                .setBorderBottom(new SolidBorder(ColorConstants.LIGHT_GRAY, 0.5f));
+                .setBorderBottom(BORDURE_LIGNE);
     }
 
     private Cell createTotauxCell(String text, boolean isBold) {
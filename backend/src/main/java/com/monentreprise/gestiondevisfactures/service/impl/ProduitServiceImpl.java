@@ -1,17 +1,33 @@
 package com.monentreprise.gestiondevisfactures.service.impl;
 
+import com.monentreprise.gestiondevisfactures.config.CacheConfig;
+import com.monentreprise.gestiondevisfactures.config.RechercheInitializer;
+import com.monentreprise.gestiondevisfactures.config.RechercheProperties;
+import com.monentreprise.gestiondevisfactures.dto.CursorPageDTO;
 import com.monentreprise.gestiondevisfactures.dto.ProduitDTO;
 import com.monentreprise.gestiondevisfactures.entity.Produit;
 import com.monentreprise.gestiondevisfactures.exception.BusinessException;
 import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
 import com.monentreprise.gestiondevisfactures.mapper.ProduitMapper;
 import com.monentreprise.gestiondevisfactures.repository.ProduitRepository;
+import com.monentreprise.gestiondevisfactures.service.AutocompletionService;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
 import com.monentreprise.gestiondevisfactures.service.ProduitService;
+import com.monentreprise.gestiondevisfactures.service.ReferentielService;
+import com.monentreprise.gestiondevisfactures.util.CursorUtils;
+import com.monentreprise.gestiondevisfactures.util.RechercheUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +40,12 @@ public class ProduitServiceImpl implements ProduitService {
 
     private final ProduitRepository produitRepository;
     private final ProduitMapper produitMapper;
+    private final ReferentielService referentielService;
+    private final RechercheProperties rechercheProperties;
+    private final RechercheInitializer rechercheInitializer;
+    private final AutocompletionService autocompletionService;
+    private final PdfCacheService pdfCacheService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional(readOnly = true)
@@ -33,6 +55,15 @@ public class ProduitServiceImpl implements ProduitService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProduitDTO> findPage(String cursor, int size) {
+        Long dernierId = (cursor == null || cursor.isBlank()) ? 0L : CursorUtils.decodeId(cursor);
+        List<Produit> produits = produitRepository.findByIdGreaterThanOrderByIdAsc(dernierId, PageRequest.of(0, size + 1));
+        return CursorPageDTO.fromRows(produits, size, produitMapper::toDTO,
+                p -> CursorUtils.encodeId(p.getId()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ProduitDTO> findAllActifs() {
@@ -54,20 +85,29 @@ public class ProduitServiceImpl implements ProduitService {
         Produit produit = produitMapper.toEntity(produitDTO);
         produit.setActif(true);
         Produit savedProduit = produitRepository.save(produit);
+        autocompletionService.enregistrer(savedProduit);
         return produitMapper.toDTO(savedProduit);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUITS, key = "#id")
     public ProduitDTO update(Long id, ProduitDTO produitDTO) {
         Produit produit = produitRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produit", "id", id));
 
+        String ancienNom = produit.getNom();
         produitMapper.updateEntityFromDTO(produitDTO, produit);
         Produit updatedProduit = produitRepository.save(produit);
+        autocompletionService.enregistrer(updatedProduit);
+        if (!Objects.equals(ancienNom, updatedProduit.getNom())) {
+            // Le nom du produit figure sur les lignes des PDF en cache
+            pdfCacheService.invaliderToutApresValidation();
+        }
         return produitMapper.toDTO(updatedProduit);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUITS, key = "#id")
     public void delete(Long id) {
         Produit produit = produitRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produit", "id", id));
@@ -75,34 +115,76 @@ public class ProduitServiceImpl implements ProduitService {
         // Suppression définitive de la base de données
         produitRepository.delete(produit);
         produitRepository.flush();
+        autocompletionService.retirer(id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProduitDTO> search(String nom, String categorie) {
-        return produitRepository.searchByNomAndCategorie(nom, categorie).stream()
+    public List<ProduitDTO> search(String nom, String categorie, Integer limite) {
+        int n = rechercheProperties.resolveLimite(limite);
+        String terme = RechercheUtils.normaliser(nom);
+        String motifCategorie = RechercheUtils.contient(RechercheUtils.normaliser(categorie));
+        List<Produit> produits;
+        if (terme == null) {
+            produits = produitRepository.searchByNomAndCategorie(null, motifCategorie, PageRequest.of(0, n));
+        } else if (terme.length() < rechercheProperties.getLongueurMinTrigrammes()) {
+            produits = produitRepository.searchByNomAndCategorie(
+                    RechercheUtils.commencePar(terme), motifCategorie, PageRequest.of(0, n));
+        } else if (rechercheInitializer.isTrigrammes()) {
+            produits = produitRepository.searchByTrigrammes(terme, RechercheUtils.contient(terme), motifCategorie, n);
+        } else {
+            produits = produitRepository.searchByNomAndCategorie(
+                    RechercheUtils.contient(terme), motifCategorie, PageRequest.of(0, n));
+        }
+        return produits.stream()
                 .map(produitMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<String> findAllCategories() {
-        return produitRepository.findAllCategories();
-    }
-
-    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUITS, key = "#id")
     public void updateStock(Long id, int quantite) {
-        Produit produit = produitRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Produit", "id", id));
-        
-        int nouveauStock = produit.getStock() - quantite;
-        if (nouveauStock < 0) {
+        if (produitRepository.decrementerStock(id, quantite) == 0) {
+            Produit produit = produitRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Produit", "id", id));
+            compterConflitStock();
             throw new BusinessException("Stock insuffisant pour le produit : " + produit.getNom() + 
                     ". Stock disponible : " + produit.getStock() + ", quantité demandée : " + quantite);
         }
-        
-        produit.setStock(nouveauStock);
-        produitRepository.save(produit);
+    }
+
+    @Override
+    public void decrementerStocks(Map<Long, Integer> quantitesParProduit) {
+        List<Long> enRupture = produitRepository.decrementerStocks(quantitesParProduit);
+        referentielService.invaliderProduits(quantitesParProduit.keySet());
+        if (enRupture.isEmpty()) {
+            return;
+        }
+
+        // L'exception annule aussi les décréments déjà appliqués dans la transaction
+        List<Object[]> stocks = produitRepository.findStocksByIds(enRupture);
+        // Un produit supprimé n'est décrémenté sur aucune ligne, comme un produit en rupture
+        Set<Long> trouves = stocks.stream().map(row -> (Long) row[0]).collect(Collectors.toSet());
+        List<Long> manquants = enRupture.stream().filter(id -> !trouves.contains(id)).toList();
+        if (!manquants.isEmpty()) {
+            throw new ResourceNotFoundException("Produit", "id", manquants.size() == 1 ? manquants.get(0) : manquants);
+        }
+
+        String details = stocks.stream()
+                .map(row -> row[1] + " (stock disponible : " + row[2] +
+                        ", quantité demandée : " + quantitesParProduit.get((Long) row[0]) + ")")
+                .collect(Collectors.joining(", "));
+        compterConflitStock();
+        throw new BusinessException("Stock insuffisant pour : " + details);
+    }
+
+    /**
+     * Compte un décrément refusé pour stock insuffisant (produit inconnu et validation exclus)
+     */
+    private void compterConflitStock() {
+        Counter.builder("stock.conflits")
+                .description("Décréments de stock refusés")
+                .register(meterRegistry)
+                .increment();
     }
 }
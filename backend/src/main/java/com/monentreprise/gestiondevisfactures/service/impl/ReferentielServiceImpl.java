@@ -0,0 +1,139 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.monentreprise.gestiondevisfactures.config.CacheConfig;
+import com.monentreprise.gestiondevisfactures.dto.CacheStatsDTO;
+import com.monentreprise.gestiondevisfactures.entity.Client;
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
+import com.monentreprise.gestiondevisfactures.repository.ClientRepository;
+import com.monentreprise.gestiondevisfactures.repository.ProduitRepository;
+import com.monentreprise.gestiondevisfactures.service.ReferentielService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Implémentation du service de lecture en cache des données de référence.
+ * Le cache conserve des copies détachées : l'instance gérée par la session
+ * de l'appelant n'est jamais partagée entre requêtes.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReferentielServiceImpl implements ReferentielService {
+
+    private final ProduitRepository produitRepository;
+    private final ClientRepository clientRepository;
+    private final CacheManager cacheManager;
+
+    @Override
+    public Map<Long, Produit> getProduits(Collection<Long> ids) {
+        Set<Long> demandes = new LinkedHashSet<>(ids);
+        Map<Long, Produit> produits = new HashMap<>();
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUITS);
+
+        List<Long> aCharger = new ArrayList<>();
+        for (Long id : demandes) {
+            Produit produit = cache != null && id != null ? cache.get(id, Produit.class) : null;
+            if (produit != null) {
+                produits.put(id, produit);
+            } else if (id != null) {
+                aCharger.add(id);
+            }
+        }
+
+        if (!aCharger.isEmpty()) {
+            for (Produit produit : produitRepository.findAllById(aCharger)) {
+                Produit copie = copier(produit);
+                produits.put(copie.getId(), copie);
+                if (cache != null) {
+                    cache.put(copie.getId(), copie);
+                }
+            }
+        }
+
+        List<Long> manquants = demandes.stream()
+                .filter(id -> !produits.containsKey(id))
+                .toList();
+        if (!manquants.isEmpty()) {
+            throw new ResourceNotFoundException("Produit(s) non trouvé(s) avec id : " + manquants);
+        }
+        return produits;
+    }
+
+    @Override
+    public <L> Map<Long, Produit> getProduits(Collection<L> lignes, Function<L, Long> produitId) {
+        if (lignes == null || lignes.isEmpty()) {
+            return Map.of();
+        }
+        return getProduits(lignes.stream().map(produitId).toList());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CLIENTS, key = "#id")
+    public Client getClient(Long id) {
+        Client client = clientRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Client", "id", id));
+        Client copie = new Client();
+        copie.setId(client.getId());
+        copie.setNom(client.getNom());
+        copie.setEmail(client.getEmail());
+        copie.setTelephone(client.getTelephone());
+        copie.setAdresse(client.getAdresse());
+        copie.setDateCreation(client.getDateCreation());
+        copie.setActif(client.getActif());
+        return copie;
+    }
+
+    @Override
+    public void invaliderProduits(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUITS);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+
+    @Override
+    public List<CacheStatsDTO> getStatistiques() {
+        List<CacheStatsDTO> statistiques = new ArrayList<>();
+        for (String nom : cacheManager.getCacheNames()) {
+            Cache cible = cacheManager.getCache(nom);
+            if (cible instanceof TransactionAwareCacheDecorator decorateur) {
+                cible = decorateur.getTargetCache();
+            }
+            if (cible instanceof CaffeineCache cache) {
+                CacheStats stats = cache.getNativeCache().stats();
+                statistiques.add(new CacheStatsDTO(nom, cache.getNativeCache().estimatedSize(),
+                        stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return statistiques;
+    }
+
+    private Produit copier(Produit produit) {
+        Produit copie = new Produit();
+        copie.setId(produit.getId());
+        copie.setNom(produit.getNom());
+        copie.setDescription(produit.getDescription());
+        copie.setPrixUnitaireHT(produit.getPrixUnitaireHT());
+        copie.setStock(produit.getStock());
+        copie.setCategorie(produit.getCategorie());
+        copie.setActif(produit.getActif());
+        return copie;
+    }
+}
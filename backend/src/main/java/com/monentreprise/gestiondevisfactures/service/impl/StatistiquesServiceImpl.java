@@ -1,22 +1,25 @@
 package com.monentreprise.gestiondevisfactures.service.impl;
 
 import com.monentreprise.gestiondevisfactures.dto.StatistiquesDTO;
+import com.monentreprise.gestiondevisfactures.entity.CaAgregat;
 import com.monentreprise.gestiondevisfactures.entity.Client;
 import com.monentreprise.gestiondevisfactures.entity.Devis;
 import com.monentreprise.gestiondevisfactures.entity.Facture;
 import com.monentreprise.gestiondevisfactures.exception.ResourceNotFoundException;
+import com.monentreprise.gestiondevisfactures.repository.CaAgregatRepository;
 import com.monentreprise.gestiondevisfactures.repository.ClientRepository;
 import com.monentreprise.gestiondevisfactures.repository.DevisRepository;
 import com.monentreprise.gestiondevisfactures.repository.FactureRepository;
 import com.monentreprise.gestiondevisfactures.repository.ProduitRepository;
+import com.monentreprise.gestiondevisfactures.repository.projection.ComptageActifsProjection;
 import com.monentreprise.gestiondevisfactures.service.StatistiquesService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.Year;
+import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,49 +36,45 @@ public class StatistiquesServiceImpl implements StatistiquesService {
     private final ProduitRepository produitRepository;
     private final DevisRepository devisRepository;
     private final FactureRepository factureRepository;
+    private final CaAgregatRepository caAgregatRepository;
 
     @Override
     public StatistiquesDTO getStatistiquesGlobales() {
         StatistiquesDTO stats = new StatistiquesDTO();
 
         // Statistiques clients
-        stats.setNombreClients((int) clientRepository.count());
-        stats.setNombreClientsActifs(clientRepository.findByActifTrue().size());
+        ComptageActifsProjection clients = clientRepository.countTotalEtActifs();
+        stats.setNombreClients(clients.getTotal().intValue());
+        stats.setNombreClientsActifs(clients.getActifs().intValue());
 
         // Statistiques produits
-        stats.setNombreProduits((int) produitRepository.count());
-        stats.setNombreProduitsActifs(produitRepository.findByActifTrue().size());
+        ComptageActifsProjection produits = produitRepository.countTotalEtActifs();
+        stats.setNombreProduits(produits.getTotal().intValue());
+        stats.setNombreProduitsActifs(produits.getActifs().intValue());
 
         // Statistiques devis
-        List<Devis> tousLesDevis = devisRepository.findAll();
-        stats.setNombreDevis(tousLesDevis.size());
-        stats.setNombreDevisEnCours((int) tousLesDevis.stream()
-                .filter(d -> d.getStatut() == Devis.StatutDevis.EN_COURS).count());
-        stats.setNombreDevisValides((int) tousLesDevis.stream()
-                .filter(d -> d.getStatut() == Devis.StatutDevis.VALIDE).count());
-        stats.setNombreDevisTransformes((int) tousLesDevis.stream()
-                .filter(d -> d.getStatut() == Devis.StatutDevis.TRANSFORME_EN_FACTURE).count());
+        Map<Devis.StatutDevis, Long> devisParStatut = new EnumMap<>(Devis.StatutDevis.class);
+        for (Object[] result : devisRepository.countByStatut()) {
+            devisParStatut.put((Devis.StatutDevis) result[0], (Long) result[1]);
+        }
+        stats.setNombreDevis((int) devisParStatut.values().stream().mapToLong(Long::longValue).sum());
+        stats.setNombreDevisEnCours(devisParStatut.getOrDefault(Devis.StatutDevis.EN_COURS, 0L).intValue());
+        stats.setNombreDevisValides(devisParStatut.getOrDefault(Devis.StatutDevis.VALIDE, 0L).intValue());
+        stats.setNombreDevisTransformes(devisParStatut.getOrDefault(Devis.StatutDevis.TRANSFORME_EN_FACTURE, 0L).intValue());
 
         // Statistiques factures
-        List<Facture> toutesLesFactures = factureRepository.findAll();
-        stats.setNombreFactures(toutesLesFactures.size());
-        stats.setNombreFacturesPayees((int) toutesLesFactures.stream()
-                .filter(f -> f.getStatut() == Facture.StatutFacture.PAYEE).count());
-        stats.setNombreFacturesNonPayees((int) toutesLesFactures.stream()
-                .filter(f -> f.getStatut() == Facture.StatutFacture.NON_PAYEE).count());
-
-        // Chiffre d'affaires
-        stats.setChiffreAffaireTotal(factureRepository.calculateTotalCA());
-
-        // CA du mois en cours
-        LocalDateTime debutMois = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime finMois = debutMois.plusMonths(1).minusSeconds(1);
-        stats.setChiffreAffaireMois(factureRepository.calculateCAByPeriode(debutMois, finMois));
-
-        // CA de l'année en cours
-        LocalDateTime debutAnnee = LocalDateTime.now().withDayOfYear(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime finAnnee = debutAnnee.plusYears(1).minusSeconds(1);
-        stats.setChiffreAffaireAnnee(factureRepository.calculateCAByPeriode(debutAnnee, finAnnee));
+        Map<Facture.StatutFacture, Long> facturesParStatut = new EnumMap<>(Facture.StatutFacture.class);
+        for (Object[] result : factureRepository.countByStatut()) {
+            facturesParStatut.put((Facture.StatutFacture) result[0], (Long) result[1]);
+        }
+        stats.setNombreFactures((int) facturesParStatut.values().stream().mapToLong(Long::longValue).sum());
+        stats.setNombreFacturesPayees(facturesParStatut.getOrDefault(Facture.StatutFacture.PAYEE, 0L).intValue());
+        stats.setNombreFacturesNonPayees(facturesParStatut.getOrDefault(Facture.StatutFacture.NON_PAYEE, 0L).intValue());
+        stats.setNombreFacturesPartiellementPayees(
+                facturesParStatut.getOrDefault(Facture.StatutFacture.PARTIELLEMENT_PAYEE, 0L).intValue());
+
+        // Chiffre d'affaires (total, mois et année en cours)
+        remplirChiffreAffaires(stats);
 
         return stats;
     }
@@ -83,19 +82,7 @@ public class StatistiquesServiceImpl implements StatistiquesService {
     @Override
     public StatistiquesDTO getChiffreAffaires() {
         StatistiquesDTO stats = new StatistiquesDTO();
-        
-        stats.setChiffreAffaireTotal(factureRepository.calculateTotalCA());
-
-        // CA du mois en cours
-        LocalDateTime debutMois = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime finMois = debutMois.plusMonths(1).minusSeconds(1);
-        stats.setChiffreAffaireMois(factureRepository.calculateCAByPeriode(debutMois, finMois));
-
-        // CA de l'année en cours
-        LocalDateTime debutAnnee = LocalDateTime.now().withDayOfYear(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime finAnnee = debutAnnee.plusYears(1).minusSeconds(1);
-        stats.setChiffreAffaireAnnee(factureRepository.calculateCAByPeriode(debutAnnee, finAnnee));
-
+        remplirChiffreAffaires(stats);
         return stats;
     }
 
@@ -109,12 +96,12 @@ public class StatistiquesServiceImpl implements StatistiquesService {
             caParMois.put(i, BigDecimal.ZERO);
         }
 
-        // Remplir avec les données réelles
-        List<Object[]> results = factureRepository.calculateCAByMois(annee);
-        for (Object[] result : results) {
-            Integer mois = (Integer) result[0];
-            BigDecimal ca = (BigDecimal) result[1];
-            caParMois.put(mois, ca);
+        // Remplir avec les cumuls mensuels précalculés
+        LocalDate debutAnnee = LocalDate.of(annee, 1, 1);
+        List<CaAgregat> cumuls = caAgregatRepository.findByGranulariteAndClientIdAndPeriodeBetween(
+                CaAgregat.Granularite.MOIS, CaAgregat.TOUS_CLIENTS, debutAnnee, debutAnnee.withMonth(12));
+        for (CaAgregat cumul : cumuls) {
+            caParMois.put(cumul.getPeriode().getMonthValue(), cumul.getMontant());
         }
 
         stats.setCaParMois(caParMois);
@@ -138,9 +125,29 @@ public class StatistiquesServiceImpl implements StatistiquesService {
         List<Facture> facturesClient = factureRepository.findByClientId(clientId);
         stats.setNombreFacturesClient(facturesClient.size());
 
-        // CA du client
-        stats.setCaClient(factureRepository.calculateCAByClient(clientId));
+        // CA du client (cumul précalculé)
+        stats.setCaClient(caAgregatRepository
+                .findByGranulariteAndPeriodeAndClientId(CaAgregat.Granularite.TOTAL, CaAgregat.PERIODE_TOTAL, clientId)
+                .map(CaAgregat::getMontant)
+                .orElse(BigDecimal.ZERO));
 
         return stats;
     }
+
+    /**
+     * Renseigne le CA total, du mois et de l'année en cours depuis les cumuls précalculés
+     */
+    private void remplirChiffreAffaires(StatistiquesDTO stats) {
+        LocalDate aujourdhui = LocalDate.now();
+        for (CaAgregat cumul : caAgregatRepository.findTotalMoisAnnee(
+                CaAgregat.Granularite.MOIS.debut(aujourdhui), CaAgregat.Granularite.ANNEE.debut(aujourdhui))) {
+            switch (cumul.getGranularite()) {
+                case TOTAL -> stats.setChiffreAffaireTotal(cumul.getMontant());
+                case MOIS -> stats.setChiffreAffaireMois(cumul.getMontant());
+                case ANNEE -> stats.setChiffreAffaireAnnee(cumul.getMontant());
+                default -> {
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,145 @@
+package com.monentreprise.gestiondevisfactures.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture incrémentale d'un CSV (RFC 4180) enregistrement par enregistrement.
+ * Le séparateur (virgule ou point-virgule, fréquent dans les exports Excel français)
+ * est déduit de la ligne d'en-tête ; les champs entre guillemets peuvent contenir
+ * séparateurs, guillemets doublés et retours à la ligne.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final char[] tampon = new char[8192];
+    private int position;
+    private int limite;
+    private char separateur;
+    private boolean debut = true;
+    private long ligne = 1;
+    private long ligneEnregistrement;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Enregistrement suivant, ou null en fin de flux. Les lignes vides sont ignorées.
+     */
+    public List<String> lire() throws IOException {
+        if (debut) {
+            initialiser();
+        }
+        List<String> champs = new ArrayList<>();
+        StringBuilder champ = new StringBuilder();
+        ligneEnregistrement = ligne;
+        boolean guillemets = false;
+        boolean vide = true;
+
+        int c;
+        while ((c = suivant()) != -1) {
+            if (guillemets) {
+                if (c == '"') {
+                    if (regarder() == '"') {
+                        suivant();
+                        champ.append('"');
+                    } else {
+                        guillemets = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        ligne++;
+                    }
+                    champ.append((char) c);
+                }
+            } else if (c == '"') {
+                guillemets = true;
+                vide = false;
+            } else if (c == separateur) {
+                champs.add(champ.toString());
+                champ.setLength(0);
+                vide = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && regarder() == '\n') {
+                    suivant();
+                }
+                ligne++;
+                if (vide && champ.length() == 0) {
+                    // Ligne vide
+                    ligneEnregistrement = ligne;
+                    continue;
+                }
+                champs.add(champ.toString());
+                return champs;
+            } else {
+                champ.append((char) c);
+                vide = false;
+            }
+        }
+        if (vide && champ.length() == 0) {
+            return null;
+        }
+        champs.add(champ.toString());
+        return champs;
+    }
+
+    /**
+     * Numéro de ligne (1 = en-tête) où commence le dernier enregistrement lu
+     */
+    public long getLigne() {
+        return ligneEnregistrement;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Ignore le BOM UTF-8 et choisit le séparateur d'après la première ligne disponible dans le tampon
+     */
+    private void initialiser() throws IOException {
+        debut = false;
+        remplir();
+        if (limite > 0 && tampon[0] == BOM) {
+            position = 1;
+        }
+        int virgules = 0;
+        int pointsVirgules = 0;
+        for (int i = position; i < limite && tampon[i] != '\n' && tampon[i] != '\r'; i++) {
+            if (tampon[i] == ',') {
+                virgules++;
+            } else if (tampon[i] == ';') {
+                pointsVirgules++;
+            }
+        }
+        separateur = pointsVirgules > virgules ? ';' : ',';
+    }
+
+    private int suivant() throws IOException {
+        if (position >= limite && !remplir()) {
+            return -1;
+        }
+        return tampon[position++];
+    }
+
+    private int regarder() throws IOException {
+        if (position >= limite && !remplir()) {
+            return -1;
+        }
+        return tampon[position];
+    }
+
+    private boolean remplir() throws IOException {
+        int lus = reader.read(tampon, 0, tampon.length);
+        position = 0;
+        limite = Math.max(lus, 0);
+        return lus > 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.monentreprise.gestiondevisfactures.util;
+
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodage et décodage des curseurs de pagination keyset.
+ * Un curseur est opaque pour le client : il contient la clé de tri
+ * du dernier élément renvoyé, encodée en Base64 URL-safe.
+ */
+public final class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtils() {
+    }
+
+    /**
+     * Curseur décodé pour un tri (date, id)
+     */
+    public record DateIdCursor(LocalDateTime date, Long id) {
+    }
+
+    /**
+     * Encode un curseur basé sur l'id seul
+     */
+    public static String encodeId(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    /**
+     * Encode un curseur basé sur le couple (date, id)
+     */
+    public static String encodeDateId(LocalDateTime date, Long id) {
+        return encode(date + SEPARATOR + id);
+    }
+
+    /**
+     * Décode un curseur basé sur l'id seul
+     */
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.valueOf(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /**
+     * Décode un curseur basé sur le couple (date, id)
+     */
+    public static DateIdCursor decodeDateId(String cursor) {
+        String value = decode(cursor);
+        int index = value.lastIndexOf(SEPARATOR);
+        if (index <= 0) {
+            throw invalidCursor();
+        }
+        try {
+            return new DateIdCursor(
+                    LocalDateTime.parse(value.substring(0, index)),
+                    Long.valueOf(value.substring(index + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static BusinessException invalidCursor() {
+        return new BusinessException("Curseur de pagination invalide");
+    }
+}
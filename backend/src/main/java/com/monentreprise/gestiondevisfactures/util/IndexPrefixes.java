@@ -0,0 +1,121 @@
+package com.monentreprise.gestiondevisfactures.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Index de préfixes compact : couples (clé, identifiant) triés dans deux tableaux parallèles.
+ * Une recherche par préfixe est une recherche dichotomique suivie d'un parcours contigu ;
+ * un ajout ou un retrait décale la fin des tableaux (System.arraycopy).
+ * Non synchronisé : l'appelant protège les accès concurrents.
+ */
+public final class IndexPrefixes {
+
+    private String[] cles = new String[64];
+    private long[] ids = new long[64];
+    private int taille;
+
+    /**
+     * Couple à indexer lors d'une construction en bloc
+     */
+    public record Couple(String cle, long id) {
+    }
+
+    /**
+     * Construit l'index en un seul tri (des ajouts successifs coûteraient un décalage chacun)
+     */
+    public static IndexPrefixes construire(List<Couple> couples) {
+        Couple[] tries = couples.toArray(Couple[]::new);
+        Arrays.sort(tries, Comparator.comparing(Couple::cle).thenComparingLong(Couple::id));
+        IndexPrefixes index = new IndexPrefixes();
+        index.cles = new String[Math.max(64, tries.length)];
+        index.ids = new long[index.cles.length];
+        for (Couple couple : tries) {
+            int dernier = index.taille - 1;
+            if (dernier >= 0 && index.ids[dernier] == couple.id() && index.cles[dernier].equals(couple.cle())) {
+                continue;
+            }
+            index.cles[index.taille] = couple.cle();
+            index.ids[index.taille++] = couple.id();
+        }
+        return index;
+    }
+
+    /**
+     * Ajoute le couple (clé, id) s'il n'est pas déjà présent
+     */
+    public void ajouter(String cle, long id) {
+        int position = chercher(cle, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (taille == cles.length) {
+            cles = Arrays.copyOf(cles, taille * 2);
+            ids = Arrays.copyOf(ids, taille * 2);
+        }
+        System.arraycopy(cles, position, cles, position + 1, taille - position);
+        System.arraycopy(ids, position, ids, position + 1, taille - position);
+        cles[position] = cle;
+        ids[position] = id;
+        taille++;
+    }
+
+    /**
+     * Retire le couple (clé, id) s'il est présent
+     */
+    public void retirer(String cle, long id) {
+        int position = chercher(cle, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(cles, position + 1, cles, position, taille - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, taille - position - 1);
+        cles[--taille] = null;
+    }
+
+    /**
+     * Parcourt, dans l'ordre des clés, les identifiants dont la clé commence par le préfixe,
+     * tant que le consommateur renvoie true
+     */
+    public void parcourir(String prefixe, LongPredicate consommateur) {
+        int position = chercher(prefixe, Long.MIN_VALUE);
+        for (int i = position >= 0 ? position : -position - 1; i < taille && cles[i].startsWith(prefixe); i++) {
+            if (!consommateur.test(ids[i])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Nombre de couples indexés
+     */
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * Position du couple, ou (-(point d'insertion) - 1) s'il est absent
+     */
+    private int chercher(String cle, long id) {
+        int bas = 0;
+        int haut = taille - 1;
+        while (bas <= haut) {
+            int milieu = (bas + haut) >>> 1;
+            int comparaison = cles[milieu].compareTo(cle);
+            if (comparaison == 0) {
+                comparaison = Long.compare(ids[milieu], id);
+            }
+            if (comparaison < 0) {
+                bas = milieu + 1;
+            } else if (comparaison > 0) {
+                haut = milieu - 1;
+            } else {
+                return milieu;
+            }
+        }
+        return -(bas + 1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.monentreprise.gestiondevisfactures.util;
+
+import java.util.Locale;
+
+/**
+ * Compteurs SQL de la requête HTTP en cours, attachés au thread qui la traite.
+ * Alimentés par la source de données et les écouteurs Hibernate, lus par le filtre de profilage.
+ * Le travail délégué à d'autres threads (exports, tâches PDF) n'y figure pas.
+ */
+public final class ProfilSqlRequete {
+
+    private static final ThreadLocal<ProfilSqlRequete> COURANT = new ThreadLocal<>();
+
+    private final long debut = System.nanoTime();
+    private int instructions;
+    private long nanosJdbc;
+    private int entitesChargees;
+
+    private ProfilSqlRequete() {
+    }
+
+    /**
+     * Ouvre le profil de la requête courante
+     */
+    public static ProfilSqlRequete demarrer() {
+        ProfilSqlRequete profil = new ProfilSqlRequete();
+        COURANT.set(profil);
+        return profil;
+    }
+
+    /**
+     * Profil de la requête courante, ou null hors requête profilée
+     */
+    public static ProfilSqlRequete courant() {
+        return COURANT.get();
+    }
+
+    /**
+     * Détache le profil du thread
+     */
+    public static void terminer() {
+        COURANT.remove();
+    }
+
+    public void instructionExecutee(long nanos) {
+        instructions++;
+        nanosJdbc += nanos;
+    }
+
+    public void entiteChargee() {
+        entitesChargees++;
+    }
+
+    public int getInstructions() {
+        return instructions;
+    }
+
+    public int getEntitesChargees() {
+        return entitesChargees;
+    }
+
+    public double getDureeJdbcMs() {
+        return nanosJdbc / 1_000_000.0;
+    }
+
+    public double getDureeTotaleMs() {
+        return (System.nanoTime() - debut) / 1_000_000.0;
+    }
+
+    /**
+     * Valeur de l'en-tête Server-Timing (métriques db et app)
+     */
+    public String serverTiming() {
+        return String.format(Locale.ROOT,
+                "db;dur=%.1f;desc=\"%d SQL, %d entites\", app;dur=%.1f",
+                getDureeJdbcMs(), instructions, entitesChargees, getDureeTotaleMs());
+    }
+}
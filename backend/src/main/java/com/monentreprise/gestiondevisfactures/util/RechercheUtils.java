@@ -0,0 +1,83 @@
+package com.monentreprise.gestiondevisfactures.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Préparation des termes de recherche pour LIKE (échappement '\') et pour l'autocomplétion
+ */
+public final class RechercheUtils {
+
+    private RechercheUtils() {
+    }
+
+    /**
+     * Terme en minuscules sans espaces superflus, ou null s'il est vide
+     */
+    public static String normaliser(String terme) {
+        if (terme == null || terme.isBlank()) {
+            return null;
+        }
+        return terme.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Motif LIKE « contient » ; null si le terme est null
+     */
+    public static String contient(String terme) {
+        return terme == null ? null : "%" + echapper(terme) + "%";
+    }
+
+    /**
+     * Motif LIKE « commence par »
+     */
+    public static String commencePar(String terme) {
+        return echapper(terme) + "%";
+    }
+
+    /**
+     * Forme repliée pour les comparaisons insensibles à la casse et aux accents :
+     * « Crème brûlée – Œuf » devient « creme brulee oeuf » ; chaîne vide si rien ne subsiste
+     */
+    public static String replier(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String decompose = estAscii(texte) ? texte : Normalizer.normalize(texte, Normalizer.Form.NFD);
+        StringBuilder replie = new StringBuilder(decompose.length());
+        boolean separateur = false;
+        for (int i = 0; i < decompose.length(); i++) {
+            char c = decompose.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                separateur = true;
+                continue;
+            }
+            if (separateur && !replie.isEmpty()) {
+                replie.append(' ');
+            }
+            separateur = false;
+            switch (c) {
+                case 'œ', 'Œ' -> replie.append("oe");
+                case 'æ', 'Æ' -> replie.append("ae");
+                default -> replie.append(Character.toLowerCase(c));
+            }
+        }
+        return replie.toString();
+    }
+
+    private static boolean estAscii(String texte) {
+        for (int i = 0; i < texte.length(); i++) {
+            if (texte.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String echapper(String terme) {
+        return terme.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,145 @@
+-- Schéma initial, tel que le créait hibernate.ddl-auto=update.
+-- Une base existante (créée avant Flyway) est marquée à cette version sans exécuter ce script
+-- (spring.flyway.baseline-on-migrate).
+
+-- Séquences « pooled » des entités principales (allocationSize = 50)
+CREATE SEQUENCE clients_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE produits_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE devis_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE devis_details_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE factures_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE facture_details_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE clients (
+    id            BIGINT       NOT NULL DEFAULT nextval('clients_seq'),
+    nom           VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL UNIQUE,
+    telephone     VARCHAR(255),
+    adresse       TEXT,
+    actif         BOOLEAN      NOT NULL,
+    date_creation TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE produits (
+    id               BIGINT        NOT NULL DEFAULT nextval('produits_seq'),
+    nom              VARCHAR(255)  NOT NULL,
+    description      TEXT,
+    prix_unitaire_ht NUMERIC(10,2) NOT NULL,
+    stock            INTEGER       NOT NULL,
+    categorie        VARCHAR(255),
+    actif            BOOLEAN       NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE devis (
+    id                BIGINT        NOT NULL DEFAULT nextval('devis_seq'),
+    numero_devis      VARCHAR(255)  NOT NULL UNIQUE,
+    client_id         BIGINT        NOT NULL,
+    date_devis        TIMESTAMP(6),
+    date_modification TIMESTAMP(6),
+    statut            VARCHAR(255)  NOT NULL
+        CHECK (statut IN ('EN_COURS', 'VALIDE', 'TRANSFORME_EN_FACTURE', 'ANNULE')),
+    total_ht          NUMERIC(12,2),
+    total_tva         NUMERIC(12,2),
+    total_ttc         NUMERIC(12,2),
+    commentaire       TEXT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_devis_client FOREIGN KEY (client_id) REFERENCES clients
+);
+
+CREATE TABLE devis_details (
+    id               BIGINT        NOT NULL DEFAULT nextval('devis_details_seq'),
+    devis_id         BIGINT        NOT NULL,
+    produit_id       BIGINT        NOT NULL,
+    quantite         INTEGER       NOT NULL,
+    prix_unitaire_ht NUMERIC(10,2) NOT NULL,
+    tva              NUMERIC(5,2),
+    total_ligne_ht   NUMERIC(12,2),
+    total_ligne_ttc  NUMERIC(12,2),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_devis_details_devis FOREIGN KEY (devis_id) REFERENCES devis,
+    CONSTRAINT fk_devis_details_produit FOREIGN KEY (produit_id) REFERENCES produits
+);
+
+CREATE TABLE factures (
+    id                BIGINT        NOT NULL DEFAULT nextval('factures_seq'),
+    numero_facture    VARCHAR(255)  NOT NULL UNIQUE,
+    client_id         BIGINT        NOT NULL,
+    devis_origine_id  BIGINT,
+    date_facture      TIMESTAMP(6),
+    date_modification TIMESTAMP(6),
+    statut            VARCHAR(255)  NOT NULL
+        CHECK (statut IN ('NON_PAYEE', 'PARTIELLEMENT_PAYEE', 'PAYEE', 'ANNULEE')),
+    mode_paiement     VARCHAR(255)
+        CHECK (mode_paiement IN ('ESPECES', 'CHEQUE', 'VIREMENT', 'CB', 'PRELEVEMENT')),
+    montant_ht        NUMERIC(12,2),
+    montant_tva       NUMERIC(12,2),
+    montant_ttc       NUMERIC(12,2),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_factures_client FOREIGN KEY (client_id) REFERENCES clients,
+    CONSTRAINT fk_factures_devis_origine FOREIGN KEY (devis_origine_id) REFERENCES devis
+);
+
+CREATE TABLE facture_details (
+    id               BIGINT        NOT NULL DEFAULT nextval('facture_details_seq'),
+    facture_id       BIGINT        NOT NULL,
+    produit_id       BIGINT        NOT NULL,
+    quantite         INTEGER       NOT NULL,
+    prix_unitaire_ht NUMERIC(10,2) NOT NULL,
+    tva              NUMERIC(5,2),
+    total_ligne_ht   NUMERIC(12,2),
+    total_ligne_ttc  NUMERIC(12,2),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_facture_details_facture FOREIGN KEY (facture_id) REFERENCES factures,
+    CONSTRAINT fk_facture_details_produit FOREIGN KEY (produit_id) REFERENCES produits
+);
+
+CREATE TABLE compteurs_numerotation (
+    id            BIGSERIAL   NOT NULL,
+    type_document VARCHAR(20) NOT NULL CHECK (type_document IN ('DEVIS', 'FACTURE')),
+    annee         INTEGER     NOT NULL,
+    valeur        BIGINT      NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (type_document, annee)
+);
+
+CREATE TABLE ca_aggregates (
+    id              BIGSERIAL     NOT NULL,
+    granularite     VARCHAR(10)   NOT NULL CHECK (granularite IN ('JOUR', 'MOIS', 'ANNEE', 'TOTAL')),
+    periode         DATE          NOT NULL,
+    client_id       BIGINT        NOT NULL,
+    montant         NUMERIC(14,2) NOT NULL,
+    nombre_factures BIGINT        NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (granularite, periode, client_id)
+);
+
+CREATE TABLE entreprise (
+    id                 BIGSERIAL    NOT NULL,
+    nom                VARCHAR(255) NOT NULL,
+    adresse            TEXT,
+    telephone          VARCHAR(20),
+    email              VARCHAR(100),
+    ice                VARCHAR(20),
+    identifiant_fiscal VARCHAR(20),
+    rc                 VARCHAR(50),
+    patente            VARCHAR(50),
+    logo_contenu       BYTEA,
+    logo_type          VARCHAR(50),
+    logo_empreinte     VARCHAR(64),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id                 BIGSERIAL    NOT NULL,
+    email              VARCHAR(255) NOT NULL UNIQUE,
+    password           VARCHAR(255) NOT NULL,
+    nom                VARCHAR(255),
+    prenom             VARCHAR(255),
+    role               VARCHAR(255),
+    actif              BOOLEAN,
+    date_creation      TIMESTAMP(6),
+    derniere_connexion TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
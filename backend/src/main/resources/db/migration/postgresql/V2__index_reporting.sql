@@ -0,0 +1,12 @@
+-- Index des requêtes de reporting et des listes (statut ou client puis période, pages keyset par date).
+-- IF NOT EXISTS : les bases créées par hibernate.ddl-auto possèdent déjà ces index.
+
+CREATE INDEX IF NOT EXISTS idx_factures_statut_date ON factures (statut, date_facture);
+CREATE INDEX IF NOT EXISTS idx_factures_client_date ON factures (client_id, date_facture);
+CREATE INDEX IF NOT EXISTS idx_factures_date_id ON factures (date_facture, id);
+CREATE INDEX IF NOT EXISTS idx_facture_details_facture ON facture_details (facture_id);
+
+CREATE INDEX IF NOT EXISTS idx_devis_statut_date ON devis (statut, date_devis);
+CREATE INDEX IF NOT EXISTS idx_devis_client_date ON devis (client_id, date_devis);
+CREATE INDEX IF NOT EXISTS idx_devis_date_id ON devis (date_devis, id);
+CREATE INDEX IF NOT EXISTS idx_devis_details_devis ON devis_details (devis_id);
@@ -0,0 +1,7 @@
+-- Recherche des clients et produits par préfixe (termes courts).
+-- Les index trigrammes (pg_trgm) restent créés au démarrage par RechercheInitializer :
+-- l'extension peut manquer de droits et être ajoutée plus tard.
+
+CREATE INDEX IF NOT EXISTS idx_clients_nom_prefixe ON clients (lower(nom) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_clients_email_prefixe ON clients (lower(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_produits_nom_prefixe ON produits (lower(nom) text_pattern_ops);
@@ -0,0 +1,7 @@
+-- Les cumuls journaliers n'étaient lus par aucune requête : seuls restent MOIS, ANNEE et TOTAL
+
+DELETE FROM ca_aggregates WHERE granularite = 'JOUR';
+
+ALTER TABLE ca_aggregates DROP CONSTRAINT IF EXISTS ca_aggregates_granularite_check;
+ALTER TABLE ca_aggregates ADD CONSTRAINT ca_aggregates_granularite_check
+    CHECK (granularite IN ('MOIS', 'ANNEE', 'TOTAL'));
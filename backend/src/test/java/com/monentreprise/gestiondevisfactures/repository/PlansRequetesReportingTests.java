@@ -0,0 +1,368 @@
+package com.monentreprise.gestiondevisfactures.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monentreprise.gestiondevisfactures.config.ExportProperties;
+import com.monentreprise.gestiondevisfactures.dto.FiltreExportFactures;
+import com.monentreprise.gestiondevisfactures.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie sur PostgreSQL que les requêtes de reporting et de listes exécutées par les services sur les
+ * devis et factures (filtres par statut, client ou période, pages keyset par date) peuvent passer par un
+ * index : chaque SELECT exécuté est rejoué en EXPLAIN avec ses paramètres, parcours séquentiels et jointures
+ * par hachage ou fusion désactivés pour ne pas dépendre du volume de test. Le test échoue si une de ces tables
+ * reste lue en entier (Seq Scan, ou parcours d'index sans condition). Le schéma est celui des migrations Flyway ;
+ * sans Docker, le test est ignoré.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FactureExportRepository.class, ExportProperties.class})
+class PlansRequetesReportingTests {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int NOMBRE_DOCUMENTS = 400;
+
+    private static final Set<String> TABLES_DOCUMENTS = Set.of("factures", "devis", "facture_details", "devis_details");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final LocalDateTime DEBUT = LocalDate.now().minusDays(30).atStartOfDay();
+    private static final LocalDateTime FIN = LocalDate.now().plusDays(1).atStartOfDay();
+
+    /**
+     * Curseur (date, id) d'une des premières pages des listes : presque toutes les lignes le suivent,
+     * seule la lecture de l'index dans l'ordre évite de les trier toutes
+     */
+    private static final LocalDateTime CURSEUR = LocalDate.now().minusDays(10).atStartOfDay();
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private FactureRepository factureRepository;
+
+    @Autowired
+    private DevisRepository devisRepository;
+
+    @Autowired
+    private FactureExportRepository factureExportRepository;
+
+    private Long clientId;
+
+    /**
+     * Première colonne de chaque index des tables documentaires
+     */
+    private Map<String, String> premieresColonnes;
+
+    @BeforeEach
+    void setUp() {
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Client client = new Client();
+            client.setNom("Client " + i);
+            client.setEmail("client" + i + "@test.ma");
+            clients.add(entityManager.persist(client));
+        }
+        clientId = clients.get(0).getId();
+
+        List<Produit> produits = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Produit produit = new Produit();
+            produit.setNom("Produit " + i);
+            produit.setPrixUnitaireHT(new BigDecimal("100.00"));
+            produit.setStock(100);
+            produits.add(entityManager.persist(produit));
+        }
+
+        Devis.StatutDevis[] statutsDevis = Devis.StatutDevis.values();
+        Facture.StatutFacture[] statutsFactures = Facture.StatutFacture.values();
+        for (int i = 0; i < NOMBRE_DOCUMENTS; i++) {
+            Devis devis = new Devis();
+            devis.setNumeroDevis(String.format("DEV-2025-%04d", i + 1));
+            devis.setClient(clients.get(i % clients.size()));
+            devis.setStatut(statutsDevis[i % statutsDevis.length]);
+            for (int j = 0; j < 3; j++) {
+                DevisDetail ligne = new DevisDetail();
+                ligne.setProduit(produits.get((i + j) % produits.size()));
+                ligne.setQuantite(1 + j);
+                ligne.setPrixUnitaireHT(new BigDecimal("100.00"));
+                devis.addLigne(ligne);
+            }
+            devis.recalculerTotaux();
+            entityManager.persist(devis);
+
+            Facture facture = new Facture();
+            facture.setNumeroFacture(String.format("FAC-2025-%04d", i + 1));
+            facture.setClient(devis.getClient());
+            facture.setDevisOrigine(devis);
+            facture.setStatut(statutsFactures[i % statutsFactures.length]);
+            for (int j = 0; j < 3; j++) {
+                FactureDetail ligne = new FactureDetail();
+                ligne.setProduit(produits.get((i + j) % produits.size()));
+                ligne.setQuantite(1 + j);
+                ligne.setPrixUnitaireHT(new BigDecimal("100.00"));
+                facture.addLigne(ligne);
+            }
+            facture.recalculerTotaux();
+            entityManager.persist(facture);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Dates de création réparties sur deux ans
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("UPDATE devis SET date_devis = CURRENT_TIMESTAMP - MOD(id * 7, 730) * INTERVAL '1 day'");
+        jdbc.update("UPDATE factures SET date_facture = CURRENT_TIMESTAMP - MOD(id * 11, 730) * INTERVAL '1 day'");
+
+        // Statistiques à jour, puis parcours séquentiels et jointures par hachage ou fusion écartés :
+        // chaque table doit être atteinte par un index, sauf si aucun ne convient
+        jdbc.execute("ANALYZE");
+        jdbc.execute("SET LOCAL enable_seqscan = off");
+        jdbc.execute("SET LOCAL enable_hashjoin = off");
+        jdbc.execute("SET LOCAL enable_mergejoin = off");
+
+        premieresColonnes = new HashMap<>();
+        jdbc.query("SELECT i.relname, a.attname FROM pg_index x "
+                        + "JOIN pg_class i ON i.oid = x.indexrelid JOIN pg_class t ON t.oid = x.indrelid "
+                        + "JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = x.indkey[0] "
+                        + "WHERE t.relname IN ('factures', 'devis', 'facture_details', 'devis_details')",
+                rs -> {
+                    premieresColonnes.put(rs.getString(1), rs.getString(2));
+                });
+    }
+
+    @Test
+    void requetesFacturesParStatutUtilisentUnIndex() {
+        verifierPlans("factures par statut", () -> factureRepository.findByStatut(Facture.StatutFacture.PAYEE));
+        verifierPlans("existence d'une facture payée", () -> factureRepository.existsByStatut(Facture.StatutFacture.PAYEE));
+        verifierPlans("CA par jour et client", () -> factureRepository.sumPayeesParJourEtClient());
+    }
+
+    @Test
+    void requetesFacturesParClientEtPeriodeUtilisentUnIndex() {
+        verifierPlans("factures d'un client", () -> factureRepository.findByClientId(clientId));
+        verifierPage("page de factures", () -> factureRepository.findPageAfter(CURSEUR, Long.MAX_VALUE, PAGE));
+        verifierPage("page de résumés de factures",
+                () -> factureRepository.findSummaryPageAfter(CURSEUR, Long.MAX_VALUE, PAGE));
+        verifierPlans("export PDF d'une période", () -> factureRepository.findVersionsForExport(DEBUT, FIN, null));
+        verifierPlans("export PDF d'une période et d'un statut",
+                () -> factureRepository.findVersionsForExport(DEBUT, FIN, Facture.StatutFacture.PAYEE));
+    }
+
+    @Test
+    void exportsFacturesUtilisentUnIndex() {
+        FiltreExportFactures periode = new FiltreExportFactures(DEBUT.toLocalDate(), FIN.toLocalDate(), null);
+        FiltreExportFactures statut = new FiltreExportFactures(null, null, Facture.StatutFacture.PAYEE);
+        FiltreExportFactures periodeEtStatut = new FiltreExportFactures(DEBUT.toLocalDate(), FIN.toLocalDate(),
+                Facture.StatutFacture.PAYEE);
+
+        verifierPlans("export des factures d'une période", () -> factureExportRepository.parcourirFactures(periode, f -> { }));
+        verifierPlans("export des factures d'un statut", () -> factureExportRepository.parcourirFactures(statut, f -> { }));
+        verifierPlans("export des lignes d'une période et d'un statut",
+                () -> factureExportRepository.parcourirLignes(periodeEtStatut, l -> { }));
+    }
+
+    @Test
+    void requetesDevisUtilisentUnIndex() {
+        verifierPlans("devis d'un client", () -> devisRepository.findByClientId(clientId));
+        verifierPlans("devis d'un client avec lignes", () -> devisRepository.findByClientIdWithLignes(clientId));
+        verifierPage("page de devis", () -> devisRepository.findPageAfter(CURSEUR, Long.MAX_VALUE, PAGE));
+        verifierPage("page de résumés de devis", () -> devisRepository.findSummaryPageAfter(CURSEUR, Long.MAX_VALUE, PAGE));
+    }
+
+    private void verifierPlans(String description, Runnable requete) {
+        verifier(description, requete, false);
+    }
+
+    /**
+     * Page keyset : en plus, les lignes doivent sortir de l'index dans l'ordre, sans tri de toutes
+     * les lignes antérieures au curseur
+     */
+    private void verifierPage(String description, Runnable requete) {
+        verifier(description, requete, true);
+    }
+
+    private void verifier(String description, Runnable requete, boolean sansTri) {
+        List<RequeteCapturee> requetes = CaptureRequetes.pendant(requete);
+        assertThat(requetes).as(description).isNotEmpty();
+        for (RequeteCapturee capturee : requetes) {
+            JsonNode plan = expliquer(capturee);
+            String contexte = description + " : " + capturee.sql() + "\n" + plan.toPrettyString();
+            assertThat(parcoursComplets(plan, new ArrayList<>())).as(contexte).isEmpty();
+            if (sansTri) {
+                assertThat(plan.findValuesAsText("Node Type")).as(contexte).doesNotContain("Sort");
+            }
+        }
+    }
+
+    /**
+     * Nœuds du plan qui lisent entièrement une table documentaire : parcours séquentiel, ou parcours d'index
+     * sans condition sur sa première colonne (ce que choisit PostgreSQL quand les parcours séquentiels sont désactivés)
+     */
+    private List<String> parcoursComplets(JsonNode noeud, List<String> trouves) {
+        String type = noeud.path("Node Type").asText();
+        if (type.equals("Seq Scan") && TABLES_DOCUMENTS.contains(noeud.path("Relation Name").asText())) {
+            trouves.add(type + " on " + noeud.path("Relation Name").asText());
+        }
+        String index = noeud.path("Index Name").asText();
+        String premiereColonne = premieresColonnes.get(index);
+        if (premiereColonne != null && !Pattern.compile("\\b" + Pattern.quote(premiereColonne) + "\\b")
+                .matcher(noeud.path("Index Cond").asText()).find()) {
+            trouves.add(type + " using " + index);
+        }
+        noeud.path("Plans").forEach(enfant -> parcoursComplets(enfant, trouves));
+        return trouves;
+    }
+
+    private JsonNode expliquer(RequeteCapturee requete) {
+        Connection connexion = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement explain = connexion.prepareStatement("EXPLAIN (FORMAT JSON) " + requete.sql())) {
+            for (Liaison liaison : requete.liaisons()) {
+                liaison.methode().invoke(explain, liaison.arguments());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                assertThat(plan.next()).isTrue();
+                return JSON.readTree(plan.getString(1)).get(0).get("Plan");
+            }
+        } catch (SQLException | ReflectiveOperationException | JsonProcessingException e) {
+            throw new IllegalStateException("EXPLAIN impossible pour : " + requete.sql(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connexion, dataSource);
+        }
+    }
+
+    /**
+     * Appel d'une méthode set*(index, valeur, ...) sur une requête préparée
+     */
+    private record Liaison(Method methode, Object[] arguments) {
+    }
+
+    private record RequeteCapturee(String sql, List<Liaison> liaisons) {
+    }
+
+    /**
+     * Enveloppe la source de données pour relever les SELECT exécutés (Hibernate comme JdbcTemplate)
+     * et leurs paramètres
+     */
+    @TestConfiguration
+    static class CaptureRequetes {
+
+        private static final List<RequeteCapturee> REQUETES = new ArrayList<>();
+        private static boolean active;
+
+        static List<RequeteCapturee> pendant(Runnable requete) {
+            REQUETES.clear();
+            active = true;
+            try {
+                requete.run();
+            } finally {
+                active = false;
+            }
+            return new ArrayList<>(REQUETES);
+        }
+
+        @Bean
+        static BeanPostProcessor captureDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource source)) {
+                        return bean;
+                    }
+                    return envelopper(DataSource.class, source, (methode, resultat, arguments) ->
+                            resultat instanceof Connection connexion ? envelopperConnexion(connexion) : resultat);
+                }
+            };
+        }
+
+        private static Connection envelopperConnexion(Connection connexion) {
+            return envelopper(Connection.class, connexion, (methode, resultat, arguments) ->
+                    methode.getName().equals("prepareStatement")
+                            ? envelopperRequete((PreparedStatement) resultat, (String) arguments[0])
+                            : resultat);
+        }
+
+        private static PreparedStatement envelopperRequete(PreparedStatement requete, String sql) {
+            Map<Integer, Liaison> liaisons = new TreeMap<>();
+            return envelopper(PreparedStatement.class, requete, (methode, resultat, arguments) -> {
+                String nom = methode.getName();
+                if (nom.startsWith("set") && arguments != null && arguments.length >= 2
+                        && arguments[0] instanceof Integer index) {
+                    liaisons.put(index, new Liaison(methode, arguments.clone()));
+                } else if (nom.equals("clearParameters")) {
+                    liaisons.clear();
+                } else if (active && (nom.equals("executeQuery") || nom.equals("execute"))
+                        && sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    REQUETES.add(new RequeteCapturee(sql, List.copyOf(liaisons.values())));
+                }
+                return resultat;
+            });
+        }
+
+        private interface Suite {
+            Object apres(Method methode, Object resultat, Object[] arguments);
+        }
+
+        private static <T> T envelopper(Class<T> type, T cible, Suite suite) {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, methode, arguments) -> {
+                Object resultat;
+                try {
+                    resultat = methode.invoke(cible, arguments);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return suite.apres(methode, resultat, arguments);
+            });
+            return type.cast(proxy);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.config.CacheConfig;
+import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
+import com.monentreprise.gestiondevisfactures.dto.FactureDetailDTO;
+import com.monentreprise.gestiondevisfactures.entity.CaAgregat;
+import com.monentreprise.gestiondevisfactures.entity.Client;
+import com.monentreprise.gestiondevisfactures.entity.Facture;
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+import com.monentreprise.gestiondevisfactures.mapper.FactureMapper;
+import com.monentreprise.gestiondevisfactures.repository.CaAgregatRepository;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie sur PostgreSQL (UPSERT des cumuls) que les cumuls de CA tenus à jour facture par facture
+ * (création, paiement, annulation, suppression) sont ceux que reconstruit reconstruire() à partir des
+ * factures payées. Sans Docker, le test est ignoré.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FactureServiceImpl.class, CaAgregatServiceImpl.class, NumerotationServiceImpl.class,
+        ReferentielServiceImpl.class, CacheConfig.class, FactureMapper.class})
+class CaAgregatServiceImplTests {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FactureServiceImpl factureService;
+
+    @Autowired
+    private CaAgregatServiceImpl caAgregatService;
+
+    @Autowired
+    private CaAgregatRepository caAgregatRepository;
+
+    @MockBean
+    private PdfCacheService pdfCacheService;
+
+    private Long client1;
+    private Long client2;
+    private Long produitId;
+
+    @BeforeEach
+    void setUp() {
+        client1 = entityManager.persist(client("Client 1")).getId();
+        client2 = entityManager.persist(client("Client 2")).getId();
+
+        Produit produit = new Produit();
+        produit.setNom("Produit");
+        produit.setPrixUnitaireHT(new BigDecimal("100.00"));
+        produit.setStock(100);
+        produitId = entityManager.persist(produit).getId();
+        entityManager.flush();
+    }
+
+    @Test
+    void cumulsIncrementauxEgauxALaReconstruction() {
+        FactureDTO decembre = creer(client1, LocalDateTime.of(2025, 12, 15, 10, 0), 1);
+        FactureDTO janvier = creer(client1, LocalDateTime.of(2026, 1, 10, 10, 0), 2);
+        FactureDTO janvierClient2 = creer(client2, LocalDateTime.of(2026, 1, 20, 10, 0), 3);
+        FactureDTO fevrier = creer(client2, LocalDateTime.of(2026, 2, 5, 10, 0), 4);
+        FactureDTO jamaisPayee = creer(client1, LocalDateTime.of(2026, 2, 28, 23, 30), 5);
+
+        for (FactureDTO facture : List.of(decembre, janvier, janvierClient2, fevrier)) {
+            factureService.marquerPayee(facture.getId(), Facture.ModePaiement.VIREMENT);
+        }
+        FactureDTO annulation = new FactureDTO();
+        annulation.setStatut(Facture.StatutFacture.ANNULEE);
+        factureService.update(janvier.getId(), annulation);
+        factureService.delete(janvierClient2.getId());
+        factureService.annuler(jamaisPayee.getId());
+
+        // Restent payées : décembre 2025 (client 1) et février 2026 (client 2)
+        BigDecimal montantDecembre = decembre.getMontantTTC();
+        BigDecimal montantFevrier = fevrier.getMontantTTC();
+        Map<String, String> attendus = new TreeMap<>();
+        attendus.put("MOIS 2025-12-01 client 0", cumul(montantDecembre, 1));
+        attendus.put("MOIS 2026-02-01 client 0", cumul(montantFevrier, 1));
+        attendus.put("ANNEE 2025-01-01 client 0", cumul(montantDecembre, 1));
+        attendus.put("ANNEE 2026-01-01 client 0", cumul(montantFevrier, 1));
+        attendus.put("TOTAL 1970-01-01 client 0", cumul(montantDecembre.add(montantFevrier), 2));
+        attendus.put("TOTAL 1970-01-01 client " + client1, cumul(montantDecembre, 1));
+        attendus.put("TOTAL 1970-01-01 client " + client2, cumul(montantFevrier, 1));
+
+        Map<String, String> incrementaux = cumuls();
+        assertThat(incrementaux).isEqualTo(attendus);
+
+        caAgregatService.reconstruire();
+        assertThat(cumuls()).isEqualTo(incrementaux);
+    }
+
+    private FactureDTO creer(Long clientId, LocalDateTime date, int quantite) {
+        FactureDetailDTO ligne = new FactureDetailDTO();
+        ligne.setProduitId(produitId);
+        ligne.setQuantite(quantite);
+        ligne.setPrixUnitaireHT(new BigDecimal("100.00"));
+        FactureDTO dto = new FactureDTO();
+        dto.setClientId(clientId);
+        dto.setLignes(List.of(ligne));
+        FactureDTO creee = factureService.create(dto);
+
+        // La création date la facture du jour et la colonne n'est pas modifiable par JPA :
+        // la facture est déplacée en SQL dans la période voulue avant son paiement
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE factures SET date_facture = :date WHERE id = :id")
+                .setParameter("date", date)
+                .setParameter("id", creee.getId())
+                .executeUpdate();
+        entityManager.clear();
+        return creee;
+    }
+
+    /**
+     * Cumuls en base, indexés par granularité, période et client. Un cumul revenu à zéro reste en table
+     * après le départ de sa dernière facture alors que la reconstruction ne le recrée pas : il est ignoré.
+     */
+    private Map<String, String> cumuls() {
+        entityManager.flush();
+        entityManager.clear();
+        Map<String, String> cumuls = new TreeMap<>();
+        for (CaAgregat agregat : caAgregatRepository.findAll()) {
+            if (agregat.getNombreFactures() != 0) {
+                cumuls.put(agregat.getGranularite() + " " + agregat.getPeriode() + " client " + agregat.getClientId(),
+                        cumul(agregat.getMontant(), agregat.getNombreFactures()));
+            }
+        }
+        return cumuls;
+    }
+
+    private static String cumul(BigDecimal montant, long nombre) {
+        return montant.setScale(2) + " / " + nombre;
+    }
+
+    private static Client client(String nom) {
+        Client client = new Client();
+        client.setNom(nom);
+        client.setEmail(nom.replace(' ', '.').toLowerCase() + "@test.ma");
+        return client;
+    }
+}
@@ -0,0 +1,184 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.config.ImportProperties;
+import com.monentreprise.gestiondevisfactures.dto.ImportErreurDTO;
+import com.monentreprise.gestiondevisfactures.dto.ImportRapportDTO;
+import com.monentreprise.gestiondevisfactures.entity.Client;
+import com.monentreprise.gestiondevisfactures.entity.Produit;
+import com.monentreprise.gestiondevisfactures.exception.BusinessException;
+import com.monentreprise.gestiondevisfactures.mapper.ClientMapper;
+import com.monentreprise.gestiondevisfactures.mapper.ProduitMapper;
+import com.monentreprise.gestiondevisfactures.repository.ClientRepository;
+import com.monentreprise.gestiondevisfactures.repository.ProduitRepository;
+import com.monentreprise.gestiondevisfactures.service.AutocompletionService;
+import com.monentreprise.gestiondevisfactures.service.PdfCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Import CSV : répartition création / mise à jour, colonnes absentes conservées et rapport de rejets.
+ * L'upsert des clients (ON CONFLICT) est propre à PostgreSQL : son repository est simulé.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({ImportCsvServiceImpl.class, ProduitMapper.class, ClientMapper.class, ImportProperties.class})
+class ImportCsvServiceImplTests {
+
+    @Autowired
+    private ImportCsvServiceImpl importCsvService;
+
+    @Autowired
+    private ProduitRepository produitRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private ClientRepository clientRepository;
+
+    @MockBean
+    private AutocompletionService autocompletionService;
+
+    @MockBean
+    private PdfCacheService pdfCacheService;
+
+    private Produit existant;
+
+    @BeforeEach
+    void setUp() {
+        existant = new Produit();
+        existant.setNom("Ancien nom");
+        existant.setDescription("Description");
+        existant.setPrixUnitaireHT(new BigDecimal("10.00"));
+        existant.setStock(42);
+        existant.setCategorie("Quincaillerie");
+        existant.setActif(false);
+        existant = entityManager.persistFlushFind(existant);
+        entityManager.clear();
+    }
+
+    @Test
+    void creeLesLignesSansIdEtMetAJourLesAutres() throws IOException {
+        ImportRapportDTO rapport = importerProduits("id;nom;prixUnitaireHT\n"
+                + ";Nouveau;5,50\n"
+                + existant.getId() + ";Nouveau nom;12\n");
+
+        assertThat(rapport.getLignesLues()).isEqualTo(2);
+        assertThat(rapport.getImportees()).isEqualTo(2);
+        assertThat(rapport.getRejetees()).isZero();
+
+        Produit nouveau = produitRepository.findAll().stream()
+                .filter(p -> p.getNom().equals("Nouveau")).findFirst().orElseThrow();
+        assertThat(nouveau.getPrixUnitaireHT()).isEqualByComparingTo("5.50");
+        assertThat(nouveau.getStock()).isZero();
+        assertThat(nouveau.getActif()).isTrue();
+    }
+
+    @Test
+    void conserveLesColonnesAbsentesDuFichier() throws IOException {
+        importerProduits("id,nom,prixUnitaireHT\n" + existant.getId() + ",Nouveau nom,12\n");
+
+        Produit produit = produitRepository.findById(existant.getId()).orElseThrow();
+        assertThat(produit.getNom()).isEqualTo("Nouveau nom");
+        assertThat(produit.getPrixUnitaireHT()).isEqualByComparingTo("12");
+        assertThat(produit.getStock()).isEqualTo(42);
+        assertThat(produit.getActif()).isFalse();
+        assertThat(produit.getDescription()).isEqualTo("Description");
+        assertThat(produit.getCategorie()).isEqualTo("Quincaillerie");
+    }
+
+    @Test
+    void actifVideConserveLeStatutEtStockVideEstRejete() throws IOException {
+        ImportRapportDTO rapport = importerProduits("id,nom,prixUnitaireHT,stock,actif\n"
+                + existant.getId() + ",Nouveau nom,12,7,\n"
+                + existant.getId() + ",Autre nom,12,,oui\n");
+
+        assertThat(rapport.getImportees()).isEqualTo(1);
+        assertThat(rapport.getErreurs()).extracting(ImportErreurDTO::getLigne, ImportErreurDTO::getColonne)
+                .containsExactly(tuple(3L, "stock"));
+
+        Produit produit = produitRepository.findById(existant.getId()).orElseThrow();
+        assertThat(produit.getNom()).isEqualTo("Nouveau nom");
+        assertThat(produit.getStock()).isEqualTo(7);
+        assertThat(produit.getActif()).isFalse();
+    }
+
+    @Test
+    void rapporteLesLignesRejetees() throws IOException {
+        ImportRapportDTO rapport = importerProduits("id,nom,prixUnitaireHT\n"
+                + ",Valide,1\n"
+                + ",Prix invalide,abc\n"
+                + ",,3\n"
+                + "999999,Inconnu,4\n");
+
+        assertThat(rapport.getLignesLues()).isEqualTo(4);
+        assertThat(rapport.getImportees()).isEqualTo(1);
+        assertThat(rapport.getRejetees()).isEqualTo(3);
+        assertThat(rapport.getErreurs()).extracting(ImportErreurDTO::getLigne, ImportErreurDTO::getColonne)
+                .containsExactlyInAnyOrder(
+                        tuple(3L, "prixUnitaireHT"),
+                        tuple(4L, "nom"),
+                        tuple(5L, "id"));
+    }
+
+    @Test
+    void rejetteUnFichierSansColonneObligatoire() {
+        assertThatThrownBy(() -> importerProduits("id,nom\n1,Vis\n"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("prixUnitaireHT");
+    }
+
+    @Test
+    void transmetLesColonnesDuFichierPourLesClients() throws IOException {
+        ImportRapportDTO rapport = importCsvService.importerClients(flux("nom,email\n"
+                + "Dupont,dupont@test.ma\n"
+                + "Dupont bis,dupont@test.ma\n"));
+
+        assertThat(rapport.getImportees()).isEqualTo(1);
+        assertThat(rapport.getErreurs()).extracting(ImportErreurDTO::getLigne).containsExactly(3L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Client>> clients = ArgumentCaptor.forClass(List.class);
+        verify(clientRepository).enregistrerParEmailEnLot(clients.capture(), eq(Set.of("nom", "email")));
+        assertThat(clients.getValue()).singleElement().satisfies(client -> {
+            assertThat(client.getNom()).isEqualTo("Dupont");
+            // Null : true pour une création, statut conservé pour un client existant
+            assertThat(client.getActif()).isNull();
+        });
+    }
+
+    private ImportRapportDTO importerProduits(String csv) throws IOException {
+        ImportRapportDTO rapport = importCsvService.importerProduits(flux(csv));
+        entityManager.clear();
+        return rapport;
+    }
+
+    private static InputStream flux(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
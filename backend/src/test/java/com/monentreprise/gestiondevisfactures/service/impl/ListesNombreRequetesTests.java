@@ -0,0 +1,164 @@
+package com.monentreprise.gestiondevisfactures.service.impl;
+
+import com.monentreprise.gestiondevisfactures.config.CacheConfig;
+import com.monentreprise.gestiondevisfactures.config.PaginationProperties;
+import com.monentreprise.gestiondevisfactures.config.PdfCacheProperties;
+import com.monentreprise.gestiondevisfactures.config.RechercheInitializer;
+import com.monentreprise.gestiondevisfactures.config.RechercheProperties;
+import com.monentreprise.gestiondevisfactures.dto.DevisDTO;
+import com.monentreprise.gestiondevisfactures.dto.FactureDTO;
+import com.monentreprise.gestiondevisfactures.entity.*;
+import com.monentreprise.gestiondevisfactures.mapper.DevisMapper;
+import com.monentreprise.gestiondevisfactures.mapper.FactureMapper;
+import com.monentreprise.gestiondevisfactures.mapper.ProduitMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que les listes de devis et de factures se chargent en un nombre borné
+ * de requêtes SQL, quel que soit le nombre de documents (pas de N+1) : une requête
+ * pour les documents, puis une par lot de hibernate.default_batch_fetch_size lignes
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({DevisServiceImpl.class, FactureServiceImpl.class, ProduitServiceImpl.class,
+        NumerotationServiceImpl.class, CaAgregatServiceImpl.class, PdfCacheServiceImpl.class,
+        ReferentielServiceImpl.class, CacheConfig.class,
+        DevisMapper.class, FactureMapper.class, ProduitMapper.class,
+        PaginationProperties.class, PdfCacheProperties.class,
+        RechercheProperties.class, RechercheInitializer.class, AutocompletionServiceImpl.class,
+        SimpleMeterRegistry.class})
+class ListesNombreRequetesTests {
+
+    /**
+     * Plus de deux lots, pour franchir les frontières de lot
+     */
+    private static final int NOMBRE_DOCUMENTS = 250;
+    private static final int TAILLE_PAGE = 50;
+
+    /**
+     * hibernate.default_batch_fetch_size (application.properties)
+     */
+    private static final int TAILLE_LOT = 100;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DevisServiceImpl devisService;
+
+    @Autowired
+    private FactureServiceImpl factureService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Client client = new Client();
+            client.setNom("Client " + i);
+            client.setEmail("client" + i + "@test.ma");
+            clients.add(entityManager.persist(client));
+        }
+
+        List<Produit> produits = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Produit produit = new Produit();
+            produit.setNom("Produit " + i);
+            produit.setPrixUnitaireHT(new BigDecimal("100.00"));
+            produit.setStock(100);
+            produits.add(entityManager.persist(produit));
+        }
+
+        for (int i = 0; i < NOMBRE_DOCUMENTS; i++) {
+            Devis devis = new Devis();
+            devis.setNumeroDevis(String.format("DEV-2025-%04d", i + 1));
+            devis.setClient(clients.get(i % clients.size()));
+            devis.setDateDevis(LocalDateTime.now().minusDays(i));
+            for (int j = 0; j < 3; j++) {
+                DevisDetail ligne = new DevisDetail();
+                ligne.setProduit(produits.get((i + j) % produits.size()));
+                ligne.setQuantite(1 + j);
+                ligne.setPrixUnitaireHT(new BigDecimal("100.00"));
+                devis.addLigne(ligne);
+            }
+            devis.recalculerTotaux();
+            entityManager.persist(devis);
+
+            Facture facture = new Facture();
+            facture.setNumeroFacture(String.format("FAC-2025-%04d", i + 1));
+            facture.setClient(devis.getClient());
+            facture.setDevisOrigine(devis);
+            facture.setDateFacture(LocalDateTime.now().minusDays(i));
+            for (int j = 0; j < 3; j++) {
+                FactureDetail ligne = new FactureDetail();
+                ligne.setProduit(produits.get((i + j) % produits.size()));
+                ligne.setQuantite(1 + j);
+                ligne.setPrixUnitaireHT(new BigDecimal("100.00"));
+                facture.addLigne(ligne);
+            }
+            facture.recalculerTotaux();
+            entityManager.persist(facture);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllDevisChargeEnNombreBorneDeRequetes() {
+        List<DevisDTO> devis = devisService.findAll();
+
+        assertThat(devis).hasSize(NOMBRE_DOCUMENTS);
+        assertThat(devis).allSatisfy(d -> assertThat(d.getLignes()).hasSize(3));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(requetesAttendues(NOMBRE_DOCUMENTS));
+    }
+
+    @Test
+    void findAllFacturesChargeEnNombreBorneDeRequetes() {
+        List<FactureDTO> factures = factureService.findAll();
+
+        assertThat(factures).hasSize(NOMBRE_DOCUMENTS);
+        assertThat(factures).allSatisfy(f -> assertThat(f.getDevisOrigineNumero()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(requetesAttendues(NOMBRE_DOCUMENTS));
+    }
+
+    @Test
+    void findPageFacturesChargeEnNombreBorneDeRequetes() {
+        assertThat(factureService.findPage(null, TAILLE_PAGE).getContent()).hasSize(TAILLE_PAGE);
+        // La page lit TAILLE_PAGE + 1 documents pour savoir s'il en reste
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(requetesAttendues(TAILLE_PAGE + 1));
+    }
+
+    /**
+     * Une requête pour les documents, puis une par lot de lignes
+     */
+    private static long requetesAttendues(int documents) {
+        return 1 + (documents + TAILLE_LOT - 1) / TAILLE_LOT;
+    }
+}
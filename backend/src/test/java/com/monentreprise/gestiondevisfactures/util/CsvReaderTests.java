@@ -0,0 +1,81 @@
+package com.monentreprise.gestiondevisfactures.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lecture CSV : guillemets, séparateur détecté, BOM, lignes vides et numéros de ligne
+ */
+class CsvReaderTests {
+
+    @Test
+    void litLesChampsEntreGuillemets() throws IOException {
+        List<List<String>> lignes = lireTout("nom,description\n"
+                + "\"Vis, inox\",\"Dite \"\"M6\"\"\"\n"
+                + "\"Écrou\",\"sur\ndeux lignes\"\n");
+
+        assertThat(lignes).containsExactly(
+                List.of("nom", "description"),
+                List.of("Vis, inox", "Dite \"M6\""),
+                List.of("Écrou", "sur\ndeux lignes"));
+    }
+
+    @Test
+    void detecteLePointVirgule() throws IOException {
+        List<List<String>> lignes = lireTout("nom;prixUnitaireHT\r\nVis;12,50\r\n");
+
+        assertThat(lignes).containsExactly(List.of("nom", "prixUnitaireHT"), List.of("Vis", "12,50"));
+    }
+
+    @Test
+    void ignoreLeBom() throws IOException {
+        List<List<String>> lignes = lireTout("﻿nom,email\nDupont,dupont@test.ma");
+
+        assertThat(lignes).containsExactly(List.of("nom", "email"), List.of("Dupont", "dupont@test.ma"));
+    }
+
+    @Test
+    void conserveLesChampsVides() throws IOException {
+        List<List<String>> lignes = lireTout("a,b,c\n,,\n\"\",x,\n");
+
+        assertThat(lignes).containsExactly(List.of("a", "b", "c"), List.of("", "", ""), List.of("", "x", ""));
+    }
+
+    @Test
+    void numeroteLesLignesEnSautantLesLignesVides() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("nom,note\n\nA,\"x\ny\"\n\r\nB,z\n\n"))) {
+            reader.lire();
+            assertThat(reader.getLigne()).isEqualTo(1);
+
+            assertThat(reader.lire()).containsExactly("A", "x\ny");
+            assertThat(reader.getLigne()).isEqualTo(3);
+
+            assertThat(reader.lire()).containsExactly("B", "z");
+            assertThat(reader.getLigne()).isEqualTo(6);
+
+            assertThat(reader.lire()).isNull();
+        }
+    }
+
+    @Test
+    void fluxVide() throws IOException {
+        assertThat(lireTout("")).isEmpty();
+    }
+
+    private static List<List<String>> lireTout(String csv) throws IOException {
+        List<List<String>> lignes = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> ligne;
+            while ((ligne = reader.lire()) != null) {
+                lignes.add(ligne);
+            }
+        }
+        return lignes;
+    }
+}
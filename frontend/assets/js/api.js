@@ -44,13 +44,46 @@ async function apiRequest(endpoint, method = 'GET', data = null) {
     }
 }
 
+/**
+ * Taille des pages des listes (pagination par curseur)
+ */
+const PAGE_SIZE = 50;
+
+/**
+ * Construit les paramètres d'une page : taille et curseur renvoyé par la page précédente
+ */
+function pageQuery(cursor, size) {
+    const params = new URLSearchParams({ size });
+    if (cursor) params.set('cursor', cursor);
+    return `?${params}`;
+}
+
+/**
+ * Parcourt toutes les pages d'une liste (écrans d'agrégats uniquement)
+ */
+async function chargerToutesLesPages(getPage) {
+    const elements = [];
+    let cursor = null;
+    do {
+        const page = await getPage(cursor, 500);
+        elements.push(...page.content);
+        cursor = page.nextCursor;
+    } while (cursor);
+    return elements;
+}
+
 // ==================== API CLIENTS ====================
 
 const ClientsAPI = {
     /**
-     * Récupère tous les clients
+     * Récupère une page de clients ({ content, nextCursor, hasNext })
      */
-    getAll: () => apiRequest('/clients'),
+    getPage: (cursor = null, size = PAGE_SIZE) => apiRequest(`/clients${pageQuery(cursor, size)}`),
+    
+    /**
+     * Récupère tous les clients, page par page
+     */
+    getAll: () => chargerToutesLesPages(ClientsAPI.getPage),
     
     /**
      * Récupère les clients actifs
@@ -87,9 +120,14 @@ const ClientsAPI = {
 
 const ProduitsAPI = {
     /**
-     * Récupère tous les produits
+     * Récupère une page de produits ({ content, nextCursor, hasNext })
+     */
+    getPage: (cursor = null, size = PAGE_SIZE) => apiRequest(`/produits${pageQuery(cursor, size)}`),
+    
+    /**
+     * Récupère tous les produits, page par page
      */
-    getAll: () => apiRequest('/produits'),
+    getAll: () => chargerToutesLesPages(ProduitsAPI.getPage),
     
     /**
      * Récupère les produits actifs
@@ -131,9 +169,19 @@ const ProduitsAPI = {
 
 const DevisAPI = {
     /**
-     * Récupère tous les devis
+     * Récupère une page de devis ({ content, nextCursor, hasNext })
+     */
+    getPage: (cursor = null, size = PAGE_SIZE) => apiRequest(`/devis${pageQuery(cursor, size)}`),
+    
+    /**
+     * Récupère tous les devis, page par page
+     */
+    getAll: () => chargerToutesLesPages(DevisAPI.getPage),
+    
+    /**
+     * Récupère une page de résumés de devis (écran de liste, sans les lignes)
      */
-    getAll: () => apiRequest('/devis'),
+    getResumes: (cursor = null, size = PAGE_SIZE) => apiRequest(`/devis/resumes${pageQuery(cursor, size)}`),
     
     /**
      * Récupère un devis par ID
@@ -212,9 +260,19 @@ const DevisAPI = {
 
 const FacturesAPI = {
     /**
-     * Récupère toutes les factures
+     * Récupère une page de factures ({ content, nextCursor, hasNext })
      */
-    getAll: () => apiRequest('/factures'),
+    getPage: (cursor = null, size = PAGE_SIZE) => apiRequest(`/factures${pageQuery(cursor, size)}`),
+    
+    /**
+     * Récupère toutes les factures, page par page
+     */
+    getAll: () => chargerToutesLesPages(FacturesAPI.getPage),
+    
+    /**
+     * Récupère une page de résumés de factures (écran de liste, sans les lignes)
+     */
+    getResumes: (cursor = null, size = PAGE_SIZE) => apiRequest(`/factures/resumes${pageQuery(cursor, size)}`),
     
     /**
      * Récupère une facture par ID
@@ -319,7 +377,35 @@ const EntrepriseAPI = {
     /**
      * Met à jour les informations de l'entreprise
      */
-    update: (data) => apiRequest('/entreprise', 'PUT', data)
+    update: (data) => apiRequest('/entreprise', 'PUT', data),
+
+    /**
+     * URL absolue du logo (versionnée, mise en cache par le navigateur) ou null
+     */
+    logoSrc: (entreprise) => entreprise && entreprise.logoUrl
+        ? `${API_BASE_URL.replace(/\/api$/, '')}${entreprise.logoUrl}`
+        : null,
+
+    /**
+     * Logo en data URL (pour jsPDF) ou null
+     */
+    getLogoDataUrl: async (entreprise) => {
+        const src = EntrepriseAPI.logoSrc(entreprise);
+        if (!src) return null;
+        try {
+            const response = await fetch(src);
+            if (!response.ok) return null;
+            const blob = await response.blob();
+            return await new Promise((resolve) => {
+                const reader = new FileReader();
+                reader.onload = () => resolve(reader.result);
+                reader.onerror = () => resolve(null);
+                reader.readAsDataURL(blob);
+            });
+        } catch (e) {
+            return null;
+        }
+    }
 };
 
 // ==================== API UTILISATEURS ====================
@@ -480,6 +566,27 @@ function getFactureStatutBadge(statut) {
     return badges[statut] || badges['NON_PAYEE'];
 }
 
+/**
+ * Affiche sous le tableau le bouton « Charger plus » tant qu'il reste des pages
+ */
+function renderLoadMore(table, hasNext, onLoadMore) {
+    let container = document.getElementById('load-more');
+    if (!container) {
+        if (!table) return;
+        container = document.createElement('div');
+        container.id = 'load-more';
+        container.className = 'flex justify-center p-4';
+        container.innerHTML = `
+            <button type="button" class="px-4 py-2 text-sm font-medium text-primary bg-primary/10 rounded-lg hover:bg-primary/20 transition-colors">
+                Charger plus
+            </button>
+        `;
+        table.insertAdjacentElement('afterend', container);
+    }
+    container.classList.toggle('hidden', !hasNext);
+    container.querySelector('button').onclick = onLoadMore;
+}
+
 // Export pour utilisation dans les autres fichiers
 window.API = {
     Clients: ClientsAPI,
@@ -497,6 +604,7 @@ window.Utils = {
     formatDateForInput,
     showToast,
     showConfirm,
+    renderLoadMore,
     getDevisStatutBadge,
     getDevisStatusBadge: getDevisStatutBadge, // Alias pour compatibilité
     getFactureStatutBadge,
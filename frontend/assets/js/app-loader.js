@@ -220,9 +220,10 @@
             const response = await fetch('http://localhost:8080/api/entreprise');
             if (response.ok) {
                 const entreprise = await response.json();
-                if (entreprise && entreprise.logo) {
-                    localStorage.setItem(COMPANY_LOGO_KEY, entreprise.logo);
-                    return entreprise.logo;
+                if (entreprise && entreprise.logoUrl) {
+                    const logoSrc = `http://localhost:8080${entreprise.logoUrl}`;
+                    localStorage.setItem(COMPANY_LOGO_KEY, logoSrc);
+                    return logoSrc;
                 }
             }
         } catch (e) {
@@ -250,8 +251,13 @@
         if (logo) {
             // Utiliser le logo de l'entreprise
             favicon.href = logo;
-            favicon.type = logo.startsWith('data:image/png') ? 'image/png' : 
-                          logo.startsWith('data:image/gif') ? 'image/gif' : 'image/jpeg';
+            if (logo.startsWith('data:')) {
+                favicon.type = logo.startsWith('data:image/png') ? 'image/png' : 
+                              logo.startsWith('data:image/gif') ? 'image/gif' : 'image/jpeg';
+            } else {
+                // URL du serveur : le type vient de l'en-tête Content-Type
+                favicon.removeAttribute('type');
+            }
         } else {
             // Utiliser le favicon par défaut
             favicon.href = DEFAULT_FAVICON;
@@ -5,6 +5,7 @@
 
 let allClients = [];
 let filteredClients = [];
+let nextCursor = null;
 
 document.addEventListener('DOMContentLoaded', () => {
     loadClients();
@@ -185,9 +186,12 @@ function sortClients(sortBy) {
 async function loadClients() {
     try {
         showLoading(true);
-        allClients = await API.Clients.getAll();
+        const page = await API.Clients.getPage();
+        allClients = page.content;
+        nextCursor = page.nextCursor;
         filteredClients = [...allClients];
         renderClients(filteredClients);
+        Utils.renderLoadMore(document.querySelector('table'), page.hasNext, loadMoreClients);
     } catch (error) {
         console.error('Erreur lors du chargement des clients:', error);
         Utils.showToast('Erreur lors du chargement des clients', 'error');
@@ -196,6 +200,22 @@ async function loadClients() {
     }
 }
 
+/**
+ * Ajoute la page suivante à la liste, en conservant la recherche en cours
+ */
+async function loadMoreClients() {
+    try {
+        const page = await API.Clients.getPage(nextCursor);
+        allClients = allClients.concat(page.content);
+        nextCursor = page.nextCursor;
+        filterClients(document.getElementById('search-input')?.value || '');
+        Utils.renderLoadMore(document.querySelector('table'), page.hasNext, loadMoreClients);
+    } catch (error) {
+        console.error('Erreur lors du chargement des clients:', error);
+        Utils.showToast('Erreur lors du chargement des clients', 'error');
+    }
+}
+
 /**
  * Affiche les clients dans le tableau
  */
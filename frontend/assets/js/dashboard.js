@@ -5,11 +5,15 @@
 
 let dashboardData = {
     clients: [],
-    produits: [],
     devis: [],
     factures: []
 };
 
+/**
+ * Nombre de lignes des tableaux de dernières activités
+ */
+const DERNIERES_ACTIVITES = 5;
+
 let currentTab = 'devis';
 
 document.addEventListener('DOMContentLoaded', () => {
@@ -22,18 +26,18 @@ document.addEventListener('DOMContentLoaded', () => {
  */
 async function loadDashboardData() {
     try {
-        // Charger les statistiques en parallèle
-        const [clients, produits, devis, factures] = await Promise.all([
-            API.Clients.getAll(),
-            API.Produits.getAll(),
-            API.Devis.getAll(),
-            API.Factures.getAll()
+        // Compteurs calculés par le serveur et premières pages (les plus récentes) en parallèle
+        const [stats, clients, devis, factures] = await Promise.all([
+            API.Statistiques.getAll(),
+            API.Clients.getAllActifs(),
+            API.Devis.getResumes(null, DERNIERES_ACTIVITES),
+            API.Factures.getResumes(null, DERNIERES_ACTIVITES)
         ]);
 
-        dashboardData = { clients, produits, devis, factures };
+        dashboardData = { clients, devis: devis.content, factures: factures.content };
 
         // Mettre à jour les statistiques
-        updateStats(clients, produits, devis, factures);
+        updateStats(stats);
         
         // Afficher le tableau selon l'onglet actif
         showTabContent(currentTab);
@@ -47,27 +51,14 @@ async function loadDashboardData() {
 /**
  * Met à jour les cartes de statistiques
  */
-function updateStats(clients, produits, devis, factures) {
-    // Calculer les statistiques (filtrer les éléments actifs)
-    const nbClients = clients.filter(c => c.actif !== false).length;
-    const nbProduits = produits.filter(p => p.actif !== false).length;
-    const nbDevisEnCours = devis.filter(d => d.statut === 'EN_COURS').length;
-    const facturesNonPayees = factures.filter(f => f.statut === 'NON_PAYEE' || f.statut === 'PARTIELLEMENT_PAYEE');
-    const nbFacturesNonPayees = facturesNonPayees.length;
-    
-    // Calculer le chiffre d'affaires du mois
-    const now = new Date();
-    const currentMonth = now.getMonth();
-    const currentYear = now.getFullYear();
+function updateStats(stats) {
+    const nbClients = stats.nombreClientsActifs || 0;
+    const nbProduits = stats.nombreProduitsActifs || 0;
+    const nbDevisEnCours = stats.nombreDevisEnCours || 0;
+    const nbFacturesNonPayees = (stats.nombreFacturesNonPayees || 0) + (stats.nombreFacturesPartiellementPayees || 0);
     
-    const caMonth = factures
-        .filter(f => {
-            const dateFacture = new Date(f.dateFacture);
-            return dateFacture.getMonth() === currentMonth && 
-                   dateFacture.getFullYear() === currentYear &&
-                   f.statut === 'PAYEE';
-        })
-        .reduce((sum, f) => sum + (f.montantTTC || 0), 0);
+    // Chiffre d'affaires du mois (factures payées)
+    const caMonth = stats.chiffreAffaireMois || 0;
 
     // Mettre à jour les éléments du DOM par ID
     const statClients = document.getElementById('stat-clients');
@@ -159,7 +150,7 @@ function showTabContent(tabType) {
 function renderDevisTable(tbody) {
     const recentDevis = [...dashboardData.devis]
         .sort((a, b) => new Date(b.dateDevis || b.dateCreation) - new Date(a.dateDevis || a.dateCreation))
-        .slice(0, 5);
+        .slice(0, DERNIERES_ACTIVITES);
     
     if (recentDevis.length === 0) {
         tbody.innerHTML = `<tr><td colspan="5" class="px-6 py-4 text-center text-gray-500">Aucun devis</td></tr>`;
@@ -185,7 +176,7 @@ function renderDevisTable(tbody) {
 function renderFacturesTable(tbody) {
     const recentFactures = [...dashboardData.factures]
         .sort((a, b) => new Date(b.dateFacture || b.dateCreation) - new Date(a.dateFacture || a.dateCreation))
-        .slice(0, 5);
+        .slice(0, DERNIERES_ACTIVITES);
     
     if (recentFactures.length === 0) {
         tbody.innerHTML = `<tr><td colspan="5" class="px-6 py-4 text-center text-gray-500">Aucune facture</td></tr>`;
@@ -211,7 +202,7 @@ function renderFacturesTable(tbody) {
 function renderClientsTable(tbody) {
     const recentClients = [...dashboardData.clients]
         .sort((a, b) => new Date(b.dateCreation) - new Date(a.dateCreation))
-        .slice(0, 5);
+        .slice(0, DERNIERES_ACTIVITES);
     
     if (recentClients.length === 0) {
         tbody.innerHTML = `<tr><td colspan="5" class="px-6 py-4 text-center text-gray-500">Aucun client</td></tr>`;
@@ -334,7 +334,7 @@ async function printDevis() {
 
         // === EN-TETE ===
         // Logo: priorite API, puis localStorage
-        const logoData = entreprise?.logo || localStorage.getItem('entrepriseLogo');
+        const logoData = await API.Entreprise.getLogoDataUrl(entreprise) || localStorage.getItem('entrepriseLogo');
         if (logoData && logoData.startsWith('data:image')) {
             try {
                 doc.addImage(logoData, 'PNG', marginLeft, y, 30, 15);
@@ -5,6 +5,7 @@
 
 let allDevis = [];
 let filteredDevis = [];
+let nextCursor = null;
 
 document.addEventListener('DOMContentLoaded', () => {
     loadDevis();
@@ -67,10 +68,13 @@ function setupStatusFilters() {
 async function loadDevis() {
     try {
         showLoading(true);
-        allDevis = await API.Devis.getAll();
+        const page = await API.Devis.getResumes();
+        allDevis = page.content;
+        nextCursor = page.nextCursor;
         filteredDevis = [...allDevis];
         renderDevis(filteredDevis);
         updateStats();
+        Utils.renderLoadMore(document.querySelector('table'), page.hasNext, loadMoreDevis);
     } catch (error) {
         console.error('Erreur lors du chargement des devis:', error);
         Utils.showToast('Erreur lors du chargement des devis', 'error');
@@ -79,6 +83,23 @@ async function loadDevis() {
     }
 }
 
+/**
+ * Ajoute la page suivante à la liste, en conservant la recherche en cours
+ */
+async function loadMoreDevis() {
+    try {
+        const page = await API.Devis.getResumes(nextCursor);
+        allDevis = allDevis.concat(page.content);
+        nextCursor = page.nextCursor;
+        filterDevis(document.getElementById('search-input')?.value || '');
+        updateStats();
+        Utils.renderLoadMore(document.querySelector('table'), page.hasNext, loadMoreDevis);
+    } catch (error) {
+        console.error('Erreur lors du chargement des devis:', error);
+        Utils.showToast('Erreur lors du chargement des devis', 'error');
+    }
+}
+
 /**
  * Met à jour les statistiques
  */
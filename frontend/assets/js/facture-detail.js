@@ -370,7 +370,7 @@ async function printFacture() {
         const nomEntreprise = entreprise?.nom || localStorage.getItem('entrepriseNom') || 'Mon Entreprise';
         
         // Logo: priorite API, puis localStorage
-        const logoData = entreprise?.logo || localStorage.getItem('entrepriseLogo');
+        const logoData = await API.Entreprise.getLogoDataUrl(entreprise) || localStorage.getItem('entrepriseLogo');
         if (logoData && logoData.startsWith('data:image')) {
             try {
                 doc.addImage(logoData, 'PNG', marginLeft, y, 30, 15);
@@ -25,15 +25,12 @@ async function init() {
     try {
         updatePageTitle();
         
-        // Charger les données en parallèle
-        const [clientsData, produitsData] = await Promise.all([
-            API.Clients.getAll(),
-            API.Produits.getAll()
+        // Charger les clients et produits actifs en parallèle
+        [clients, produits] = await Promise.all([
+            API.Clients.getAllActifs(),
+            API.Produits.getAllActifs()
         ]);
 
-        clients = clientsData.filter(c => c.actif);
-        produits = produitsData.filter(p => p.actif);
-
         populateClientSelect();
 
         if (isEditMode) {
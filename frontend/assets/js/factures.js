@@ -5,6 +5,7 @@
 
 let allFactures = [];
 let filteredFactures = [];
+let nextCursor = null;
 
 document.addEventListener('DOMContentLoaded', () => {
     loadFactures();
@@ -67,10 +68,13 @@ function setupStatusFilters() {
 async function loadFactures() {
     try {
         showLoading(true);
-        allFactures = await API.Factures.getAll();
+        const page = await API.Factures.getResumes();
+        allFactures = page.content;
+        nextCursor = page.nextCursor;
         filteredFactures = [...allFactures];
         renderFactures(filteredFactures);
         updateStats();
+        Utils.renderLoadMore(document.querySelector('table'), page.hasNext, loadMoreFactures);
     } catch (error) {
         console.error('Erreur lors du chargement des factures:', error);
         Utils.showToast('Erreur lors du chargement des factures', 'error');
@@ -79,6 +83,23 @@ async function loadFactures() {
     }
 }
 
+/**
+ * Ajoute la page suivante à la liste, en conservant la recherche en cours
+ */
+async function loadMoreFactures() {
+    try {
+        const page = await API.Factures.getResumes(nextCursor);
+        allFactures = allFactures.concat(page.content);
+        nextCursor = page.nextCursor;
+        filterFactures(document.getElementById('search-input')?.value || '');
+        updateStats();
+        Utils.renderLoadMore(document.querySelector('table'), page.hasNext, loadMoreFactures);
+    } catch (error) {
+        console.error('Erreur lors du chargement des factures:', error);
+        Utils.showToast('Erreur lors du chargement des factures', 'error');
+    }
+}
+
 /**
  * Met à jour les statistiques
  */
@@ -110,13 +110,14 @@ async function loadEntreprise() {
             document.getElementById('company-email').value = entreprise.email || '';
             
             // Charger le logo s'il existe
-            if (entreprise.logo) {
+            const logoSrc = API.Entreprise.logoSrc(entreprise);
+            if (logoSrc) {
                 const logoPreview = document.getElementById('company-logo-preview');
                 if (logoPreview) {
-                    logoPreview.src = entreprise.logo;
+                    logoPreview.src = logoSrc;
                 }
-                // Stocker le logo dans localStorage pour le favicon
-                localStorage.setItem('entrepriseLogo', entreprise.logo);
+                // Stocker l'URL du logo dans localStorage pour le favicon
+                localStorage.setItem('entrepriseLogo', logoSrc);
             }
             
             // Stocker l'ID si présent pour savoir si c'est une mise à jour
@@ -6,6 +6,7 @@
 let allProduits = [];
 let filteredProduits = [];
 let categories = [];
+let nextCursor = null;
 
 document.addEventListener('DOMContentLoaded', () => {
     loadProduits();
@@ -190,7 +191,9 @@ function sortProduits(sortBy) {
 async function loadProduits() {
     try {
         showLoading(true);
-        allProduits = await API.Produits.getAll();
+        const page = await API.Produits.getPage();
+        allProduits = page.content;
+        nextCursor = page.nextCursor;
         filteredProduits = [...allProduits];
         
         // Extraire les catégories uniques
@@ -201,6 +204,7 @@ async function loadProduits() {
         
         renderProduits(filteredProduits);
         renderCategoryFilters();
+        Utils.renderLoadMore(document.querySelector('table'), page.hasNext, loadMoreProduits);
     } catch (error) {
         console.error('Erreur lors du chargement des produits:', error);
         Utils.showToast('Erreur lors du chargement des produits', 'error');
@@ -209,6 +213,25 @@ async function loadProduits() {
     }
 }
 
+/**
+ * Ajoute la page suivante à la liste, en conservant la recherche en cours
+ */
+async function loadMoreProduits() {
+    try {
+        const page = await API.Produits.getPage(nextCursor);
+        allProduits = allProduits.concat(page.content);
+        nextCursor = page.nextCursor;
+        categories = [...new Set(allProduits.map(p => p.categorie).filter(Boolean))];
+        populateCategorySelect();
+        renderCategoryFilters();
+        filterProduits(document.getElementById('search-input')?.value || '');
+        Utils.renderLoadMore(document.querySelector('table'), page.hasNext, loadMoreProduits);
+    } catch (error) {
+        console.error('Erreur lors du chargement des produits:', error);
+        Utils.showToast('Erreur lors du chargement des produits', 'error');
+    }
+}
+
 /**
  * Affiche les produits dans le tableau ou la grille
  */
@@ -356,7 +379,8 @@ function populateCategorySelect() {
     const categorySelect = document.getElementById('category-filter');
     if (!categorySelect) return;
     
-    // Garder la première option "Toutes catégories"
+    // Garder la première option "Toutes catégories" et la sélection en cours
+    const selection = categorySelect.value;
     const firstOption = categorySelect.querySelector('option');
     categorySelect.innerHTML = '';
     if (firstOption) categorySelect.appendChild(firstOption);
@@ -367,6 +391,7 @@ function populateCategorySelect() {
         option.textContent = cat;
         categorySelect.appendChild(option);
     });
+    categorySelect.value = selection;
 }
 
 /**
@@ -35,9 +35,10 @@ async function loadEntrepriseName() {
                 updateSidebarEntrepriseName(entreprise.nom);
             }
             // Mettre à jour le logo si présent
-            if (entreprise && entreprise.logo) {
-                localStorage.setItem('entrepriseLogo', entreprise.logo);
-                updateSidebarLogo(entreprise.logo);
+            const logoSrc = window.API.Entreprise.logoSrc(entreprise);
+            if (logoSrc) {
+                localStorage.setItem('entrepriseLogo', logoSrc);
+                updateSidebarLogo(logoSrc);
             }
         }
     } catch (error) {
@@ -0,0 +1,49 @@
+// Test de charge k6 : listes, détails et PDF des devis et factures.
+// Usage : k6 run -e BASE_URL=http://localhost:8080 -e VUS=200 charge.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = Number(__ENV.VUS || 200);
+
+export const options = {
+    scenarios: {
+        charge: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: __ENV.DUREE || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const devis = http.get(`${BASE_URL}/api/devis?size=50`).json('content') || [];
+    const factures = http.get(`${BASE_URL}/api/factures?size=50`).json('content') || [];
+    if (devis.length === 0 || factures.length === 0) {
+        throw new Error('Créez quelques devis et factures avant le test de charge');
+    }
+    return { devis: devis.map(d => d.id), factures: factures.map(f => f.id) };
+}
+
+function auHasard(ids) {
+    return ids[Math.floor(Math.random() * ids.length)];
+}
+
+export default function (data) {
+    const tirage = Math.random();
+    let res;
+    if (tirage < 0.4) {
+        res = http.get(`${BASE_URL}/api/devis?size=20`, { tags: { endpoint: 'liste devis' } });
+    } else if (tirage < 0.7) {
+        res = http.get(`${BASE_URL}/api/devis/${auHasard(data.devis)}`, { tags: { endpoint: 'detail devis' } });
+    } else if (tirage < 0.9) {
+        res = http.get(`${BASE_URL}/api/factures/${auHasard(data.factures)}`, { tags: { endpoint: 'detail facture' } });
+    } else {
+        res = http.get(`${BASE_URL}/api/factures/${auHasard(data.factures)}/pdf`, { tags: { endpoint: 'pdf facture' } });
+    }
+    check(res, {
+        'réponse 2xx': r => r.status >= 200 && r.status < 300,
+        'pas de saturation (503)': r => r.status !== 503,
+    });
+}
@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Compare le débit du backend en threads plateforme puis en threads virtuels.
+# Le mode virtuel n'est pas activé par défaut : reporter les résultats dans le README avant de l'activer.
+# Prérequis : JRE 21+, k6, jq, PostgreSQL configuré (DB_URL, DB_USERNAME, DB_PASSWORD)
+# avec quelques devis et factures.
+# Usage : ./comparer-modes.sh [VUS] [DUREE]
+set -euo pipefail
+
+VUS=${1:-200}
+DUREE=${2:-60s}
+PORT=${PORT:-8080}
+ICI=$(cd "$(dirname "$0")" && pwd)
+RESULTATS="$ICI/resultats"
+mkdir -p "$RESULTATS"
+
+(cd "$ICI/../backend" && mvn -B -q -DskipTests package)
+JAR=$(ls "$ICI"/../backend/target/gestion-devis-factures-*.jar | grep -v original | head -1)
+
+for mode in false true; do
+    echo "== spring.threads.virtual.enabled=$mode"
+    PORT=$PORT java -jar "$JAR" --spring.threads.virtual.enabled=$mode > "$RESULTATS/backend-virtuel-$mode.log" 2>&1 &
+    PID=$!
+    trap 'kill $PID 2>/dev/null || true' EXIT
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+    # Échauffement (JIT, caches) puis mesure
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DUREE=15s "$ICI/charge.js" > /dev/null
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DUREE="$DUREE" \
+        --summary-export "$RESULTATS/virtuel-$mode.json" "$ICI/charge.js" > /dev/null
+
+    kill $PID
+    wait $PID 2>/dev/null || true
+done
+
+printf "\n%-10s %12s %10s %10s %10s\n" "virtuels" "requêtes/s" "p95 (ms)" "p99 (ms)" "échecs"
+for mode in false true; do
+    jq -r --arg mode "$mode" '[$mode,
+        (.metrics.http_reqs.rate | floor),
+        (.metrics.http_req_duration["p(95)"] | floor),
+        (.metrics.http_req_duration["p(99)"] | floor),
+        (.metrics.http_req_failed.value * 100 | tostring + " %")] | @tsv' \
+        "$RESULTATS/virtuel-$mode.json" | awk -F'\t' '{ printf "%-10s %12s %10s %10s %10s\n", $1, $2, $3, $4, $5 }'
+done